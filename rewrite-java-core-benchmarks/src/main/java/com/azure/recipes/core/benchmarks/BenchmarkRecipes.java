@@ -0,0 +1,85 @@
+package com.azure.recipes.core.benchmarks;
+
+import com.azure.recipes.core.v2.AddTryCatchToMethodCallRecipe;
+import com.azure.recipes.core.v2.ContextRecipe;
+import com.azure.recipes.core.v2.FusedRecipe;
+import com.azure.recipes.core.v2.HttpLogOptionsRecipe;
+import com.azure.recipes.core.v2.RemoveFixedDelayRecipe;
+import com.azure.recipes.core.v2.ResponseRecipe;
+import com.azure.recipes.core.v2.RetryOptionsConstructorRecipe;
+import com.azure.recipes.core.v2.TypeMigrationRecipe;
+import com.azure.recipes.core.v2.TypeReferenceRecipe;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+
+import java.util.List;
+
+/**
+ * BenchmarkRecipes resolves the recipes under benchmark by name.
+ * Recipe options mirror the configuration used by rewrite.yml.
+ */
+public final class BenchmarkRecipes {
+
+    public static final String COMPOSITE = "MigrateAzureCoreSamplesToAzureCoreV2";
+
+    public static final String FUSED_COMPOSITE = "Fused" + COMPOSITE;
+
+    private static final String COMPOSITE_NAME = "com.azure.rewrite.java.core." + COMPOSITE;
+
+    private BenchmarkRecipes() {
+    }
+
+    /**
+     * Method to create the recipe with the given simple name
+     * @param name The simple class name of a recipe in com.azure.recipes.core.v2, or the composite name,
+     *             optionally prefixed with Fused
+     * @return The configured recipe
+     */
+    public static Recipe byName(String name) {
+        switch (name) {
+            case "AddTryCatchToMethodCallRecipe":
+                return new AddTryCatchToMethodCallRecipe("com.azure.core.util.BinaryData toObject(..)",
+                        "catch (IOException e) { e.printStackTrace(); }",
+                        "java.io.IOException", true);
+            case "TypeReferenceRecipe":
+                return new TypeReferenceRecipe();
+            case "ContextRecipe":
+                return new ContextRecipe();
+            case "ResponseRecipe":
+                return new ResponseRecipe();
+            case "HttpLogOptionsRecipe":
+                return new HttpLogOptionsRecipe();
+            case "RetryOptionsConstructorRecipe":
+                return new RetryOptionsConstructorRecipe();
+            case "RemoveFixedDelayRecipe":
+                return new RemoveFixedDelayRecipe();
+            case "TypeMigrationRecipe":
+                return new TypeMigrationRecipe();
+            case COMPOSITE:
+                return Environment.builder()
+                        .scanRuntimeClasspath()
+                        .build()
+                        .activateRecipes(COMPOSITE_NAME);
+            case FUSED_COMPOSITE:
+                return FusedRecipe.of(byName(COMPOSITE));
+            default:
+                throw new IllegalArgumentException("Unknown recipe: " + name);
+        }
+    }
+
+    /**
+     * Method to run a recipe over pre-parsed LSTs
+     * @param recipe The recipe to run
+     * @param sources The pre-parsed LSTs
+     * @return The recipe run holding all results
+     */
+    public static RecipeRun run(Recipe recipe, List<SourceFile> sources) {
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        return recipe.run(new InMemoryLargeSourceSet(sources), ctx);
+    }
+}
@@ -0,0 +1,56 @@
+package com.azure.recipes.core.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * BenchmarkReport runs the benchmarks with the gc profiler attached and prints, per recipe and
+ * fixture size, the throughput and the bytes allocated per compilation unit.
+ * --------------------------------------------------
+ * Run with:
+ * java -cp target/benchmarks.jar com.azure.recipes.core.benchmarks.BenchmarkReport [JMH options]
+ * --------------------------------------------------
+ */
+public final class BenchmarkReport {
+
+    private BenchmarkReport() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(RecipeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.printf("%n%-40s %10s %14s %22s%n", "Recipe", "Files", "Runs/s", "Bytes/compilation unit");
+        for (RunResult result : results) {
+            String recipe = result.getParams().getParam("recipeName");
+            int fileCount = Integer.parseInt(result.getParams().getParam("fileCount"));
+            double runsPerSecond = result.getPrimaryResult().getScore();
+            double bytesPerRun = secondaryScore(result.getSecondaryResults(), "gc.alloc.rate.norm");
+            System.out.printf("%-40s %10d %14.3f %22.0f%n", recipe, fileCount, runsPerSecond, bytesPerRun / fileCount);
+        }
+    }
+
+    private static double secondaryScore(Map<String, Result> secondaryResults, String label) {
+        for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+            // Older JMH versions prefix profiler labels with a middle dot
+            if (entry.getKey().endsWith(label)) {
+                return entry.getValue().getScore();
+            }
+        }
+        return Double.NaN;
+    }
+}
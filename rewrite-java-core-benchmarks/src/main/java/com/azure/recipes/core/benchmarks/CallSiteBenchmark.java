@@ -0,0 +1,78 @@
+package com.azure.recipes.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.SourceFile;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CallSiteBenchmark runs AddTryCatchToMethodCallRecipe over a single file with many BinaryData.toObject
+ * call sites, covering both the variable declaration branch and the fallback branch of the recipe.
+ * --------------------------------------------------
+ * Run with:
+ * java -jar target/benchmarks.jar CallSiteBenchmark -prof gc
+ * --------------------------------------------------
+ * The score is the average time to rewrite the whole file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CallSiteBenchmark {
+
+    @Param({"100", "500"})
+    public int callSites;
+
+    private Recipe recipe;
+
+    private List<SourceFile> sources;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        recipe = BenchmarkRecipes.byName("AddTryCatchToMethodCallRecipe");
+        sources = SampleFixtures.parse(callSiteSource(callSites));
+    }
+
+    @Benchmark
+    public void run(Blackhole blackhole) {
+        RecipeRun run = BenchmarkRecipes.run(recipe, sources);
+        blackhole.consume(run.getChangeset().getAllResults());
+    }
+
+    /**
+     * Method to generate a class with the given number of toObject call sites, alternating between
+     * a variable declaration and a call nested in another method call
+     */
+    private static String callSiteSource(int callSites) {
+        StringBuilder source = new StringBuilder()
+                .append("import com.azure.core.util.BinaryData;\n\n")
+                .append("public class CallSites {\n");
+        for (int i = 0; i < callSites; i++) {
+            source.append("    public void callSite").append(i).append("(BinaryData data) {\n");
+            if (i % 2 == 0) {
+                source.append("        String value = data.toObject(String.class);\n");
+            } else {
+                source.append("        System.out.println(data.toObject(String.class));\n");
+            }
+            source.append("    }\n\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.azure.recipes.core.benchmarks;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.TreeVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HeapUsageReport runs the visitors of every recipe in the MigrateAzureCoreSamplesToAzureCoreV2 composite
+ * over 10,000 generated files and prints the heap in use after each batch of files.
+ * --------------------------------------------------
+ * Run with:
+ * java -Xmx512m -cp target/benchmarks.jar com.azure.recipes.core.benchmarks.HeapUsageReport [fileCount]
+ * --------------------------------------------------
+ * Each visitor instance is reused for every file, so any state a visitor keeps across compilation units
+ * shows up as heap growth. The report exits with status 1 when the heap in use after the last batch is
+ * more than MAX_GROWTH_BYTES above the heap in use after the first batch.
+ */
+public final class HeapUsageReport {
+
+    private static final int DEFAULT_FILE_COUNT = 10_000;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final long MAX_GROWTH_BYTES = 16L * 1024 * 1024;
+
+    private HeapUsageReport() {
+    }
+
+    public static void main(String[] args) {
+        int fileCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FILE_COUNT;
+        List<TreeVisitor<?, ExecutionContext>> visitors = new ArrayList<>();
+        for (Recipe recipe : leafRecipes(BenchmarkRecipes.byName(BenchmarkRecipes.COMPOSITE), new ArrayList<>())) {
+            visitors.add(recipe.getVisitor());
+        }
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+
+        long firstBatchHeap = -1;
+        long lastBatchHeap = -1;
+        System.out.printf("%n%10s %18s%n", "Files", "Heap in use (KB)");
+        for (int batchStart = 0; batchStart < fileCount; batchStart += BATCH_SIZE) {
+            int batchEnd = Math.min(batchStart + BATCH_SIZE, fileCount);
+            // Parse one batch at a time so that only the visitors can hold on to earlier files
+            for (SourceFile source : SampleFixtures.parse(generatedSources(batchStart, batchEnd))) {
+                for (TreeVisitor<?, ExecutionContext> visitor : visitors) {
+                    if (visitor.isAcceptable(source, ctx)) {
+                        source = (SourceFile) visitor.visitNonNull(source, ctx);
+                    }
+                }
+            }
+            lastBatchHeap = heapInUse();
+            if (firstBatchHeap < 0) {
+                firstBatchHeap = lastBatchHeap;
+            }
+            System.out.printf("%10d %18d%n", batchEnd, lastBatchHeap / 1024);
+        }
+
+        long growth = lastBatchHeap - firstBatchHeap;
+        System.out.printf("%nHeap growth between the first and the last batch: %d KB%n", growth / 1024);
+        if (growth > MAX_GROWTH_BYTES) {
+            System.out.printf("Heap growth exceeds %d KB%n", MAX_GROWTH_BYTES / 1024);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Method to flatten a composite recipe into the recipes that provide visitors
+     */
+    private static List<Recipe> leafRecipes(Recipe recipe, List<Recipe> leaves) {
+        if (recipe.getRecipeList().isEmpty()) {
+            leaves.add(recipe);
+        }
+        for (Recipe child : recipe.getRecipeList()) {
+            leafRecipes(child, leaves);
+        }
+        return leaves;
+    }
+
+    /**
+     * Method to generate one source per file index, with distinct imports, type names and variable names in every
+     * file, so that state a visitor keeps per import or per name grows with the number of files
+     */
+    private static String[] generatedSources(int from, int to) {
+        String[] sources = new String[to - from];
+        for (int i = from; i < to; i++) {
+            String model = "Model" + i;
+            sources[i - from] = String.join("\n",
+                    "package com.example.generated" + i + ";",
+                    "",
+                    "import com.azure.core.http.policy.FixedDelayOptions;",
+                    "import com.azure.core.http.policy.RetryOptions;",
+                    "import com.azure.core.util.BinaryData;",
+                    "import com.azure.core.util.serializer.TypeReference;",
+                    "import com.example.models" + i + "." + model + ";",
+                    "import com.example.models" + i + ".Other" + model + ";",
+                    "",
+                    "import java.time.Duration;",
+                    "import java.util.List;",
+                    "import java.util.Map;",
+                    "",
+                    "public class Generated" + i + " {",
+                    "    private Other" + model + " other" + i + ";",
+                    "    public Map<String, List<" + model + ">> read" + i + "(BinaryData data" + i + ") {",
+                    "        FixedDelayOptions delay" + i + " = new FixedDelayOptions(3, Duration.ofMillis(" + i + "));",
+                    "        RetryOptions retry" + i + " = new RetryOptions(delay" + i + ");",
+                    "        return data" + i + ".toObject(new TypeReference<Map<String, List<" + model + ">>>() { });",
+                    "    }",
+                    "}");
+        }
+        return sources;
+    }
+
+    private static long heapInUse() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,103 @@
+package com.azure.recipes.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.SourceFile;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NonMatchingFileBenchmark measures what each recipe costs on a file that does not use azure-core at all,
+ * which is the common case when the recipes are run over a whole monorepo.
+ * --------------------------------------------------
+ * Run with:
+ * java -jar target/benchmarks.jar NonMatchingFileBenchmark -prof gc
+ * --------------------------------------------------
+ * The score is the average time per compilation unit, and gc.alloc.rate.norm is the bytes allocated
+ * per compilation unit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NonMatchingFileBenchmark {
+
+    private static final int FILE_COUNT = 1000;
+
+    private static final String NON_AZURE_SOURCE = String.join("\n",
+            "package com.example.inventory;",
+            "",
+            "import java.io.IOException;",
+            "import java.util.ArrayList;",
+            "import java.util.HashMap;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "import java.util.stream.Collectors;",
+            "",
+            "public class InventoryService {",
+            "    private final Map<String, Integer> stock = new HashMap<>();",
+            "",
+            "    public void add(String item, int count) {",
+            "        stock.merge(item, count, Integer::sum);",
+            "    }",
+            "",
+            "    public List<String> lowStock(int threshold) {",
+            "        return stock.entrySet().stream()",
+            "                .filter(e -> e.getValue() < threshold)",
+            "                .map(Map.Entry::getKey)",
+            "                .collect(Collectors.toList());",
+            "    }",
+            "",
+            "    public List<String> load(List<String> lines) throws IOException {",
+            "        List<String> loaded = new ArrayList<>();",
+            "        for (String line : lines) {",
+            "            String[] parts = line.split(\",\");",
+            "            if (parts.length != 2) {",
+            "                throw new IOException(\"Malformed line: \" + line);",
+            "            }",
+            "            add(parts[0], Integer.parseInt(parts[1]));",
+            "            loaded.add(parts[0]);",
+            "        }",
+            "        return loaded;",
+            "    }",
+            "}");
+
+    @Param({"AddTryCatchToMethodCallRecipe", "TypeReferenceRecipe", "ContextRecipe", "ResponseRecipe",
+            "HttpLogOptionsRecipe", "RetryOptionsConstructorRecipe", "RemoveFixedDelayRecipe",
+            "TypeMigrationRecipe", BenchmarkRecipes.COMPOSITE, BenchmarkRecipes.FUSED_COMPOSITE})
+    public String recipeName;
+
+    private Recipe recipe;
+
+    private List<SourceFile> sources;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        recipe = BenchmarkRecipes.byName(recipeName);
+        sources = SampleFixtures.replicate(SampleFixtures.parse(NON_AZURE_SOURCE), FILE_COUNT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_COUNT)
+    public void run(Blackhole blackhole) {
+        RecipeRun run = BenchmarkRecipes.run(recipe, sources);
+        blackhole.consume(run.getChangeset().getAllResults());
+    }
+}
@@ -0,0 +1,76 @@
+package com.azure.recipes.core.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.SourceFile;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecipeBenchmark runs each recipe of rewrite-java-core, and the full composite, over pre-parsed
+ * LSTs generated from the rewrite-sample v1 sources.
+ * --------------------------------------------------
+ * Run with:
+ * java -jar target/benchmarks.jar RecipeBenchmark -prof gc
+ * --------------------------------------------------
+ * The primary score is recipe runs per second over fileCount compilation units. The
+ * compilationUnits counter reports compilation units per second, and gc.alloc.rate.norm divided by
+ * fileCount gives the bytes allocated per compilation unit (see {@link BenchmarkReport}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RecipeBenchmark {
+
+    @Param({"AddTryCatchToMethodCallRecipe", "TypeReferenceRecipe", "ContextRecipe", "ResponseRecipe",
+            "HttpLogOptionsRecipe", "RetryOptionsConstructorRecipe", "RemoveFixedDelayRecipe",
+            "TypeMigrationRecipe", BenchmarkRecipes.COMPOSITE, BenchmarkRecipes.FUSED_COMPOSITE})
+    public String recipeName;
+
+    @Param({"100", "1000"})
+    public int fileCount;
+
+    private Recipe recipe;
+
+    private List<SourceFile> sources;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        recipe = BenchmarkRecipes.byName(recipeName);
+        sources = SampleFixtures.replicate(SampleFixtures.parseSamples(), fileCount);
+    }
+
+    /**
+     * Counts the compilation units processed so JMH reports them as a rate next to the primary score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class CompilationUnits {
+        public long compilationUnits;
+    }
+
+    @Benchmark
+    public void run(CompilationUnits counter, Blackhole blackhole) {
+        RecipeRun run = BenchmarkRecipes.run(recipe, sources);
+        blackhole.consume(run.getChangeset().getAllResults());
+        counter.compilationUnits += sources.size();
+    }
+}
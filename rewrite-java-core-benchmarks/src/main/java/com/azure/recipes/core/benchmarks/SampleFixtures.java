@@ -0,0 +1,105 @@
+package com.azure.recipes.core.benchmarks;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.java.JavaParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * SampleFixtures parses the azure-core v1 sources of the rewrite-sample project once and replicates
+ * the resulting LSTs to build benchmark inputs of any size.
+ * --------------------------------------------------
+ * The sample directory defaults to ../rewrite-sample/azure-ai-translation-text-v1/src and can be
+ * overridden with -Drewrite.benchmark.sampleDir=/path/to/src
+ * --------------------------------------------------
+ */
+public final class SampleFixtures {
+
+    public static final String SAMPLE_DIR_PROPERTY = "rewrite.benchmark.sampleDir";
+
+    private static final String DEFAULT_SAMPLE_DIR = "../rewrite-sample/azure-ai-translation-text-v1/src";
+
+    private SampleFixtures() {
+    }
+
+    /**
+     * Method to parse every Java source under the sample directory
+     * @return The type-attributed LSTs of the v1 sample sources
+     */
+    public static List<SourceFile> parseSamples() {
+        Path sampleDir = Paths.get(System.getProperty(SAMPLE_DIR_PROPERTY, DEFAULT_SAMPLE_DIR)).toAbsolutePath().normalize();
+        List<Path> sources;
+        try (Stream<Path> files = Files.walk(sampleDir)) {
+            sources = files.filter(path -> path.toString().endsWith(".java"))
+                    .filter(path -> !path.getFileName().toString().equals("module-info.java"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read sample sources from " + sampleDir, e);
+        }
+        if (sources.isEmpty()) {
+            throw new IllegalStateException("No Java sources found in " + sampleDir
+                    + "; set -D" + SAMPLE_DIR_PROPERTY + " to the rewrite-sample v1 src directory");
+        }
+        return parse(sources, sampleDir);
+    }
+
+    /**
+     * Method to parse the given source files with the benchmark runtime classpath
+     * @param sources The source files to parse
+     * @param relativeTo The directory the source paths are made relative to
+     * @return The parsed LSTs
+     */
+    public static List<SourceFile> parse(List<Path> sources, Path relativeTo) {
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        return JavaParser.fromJavaVersion()
+                .classpath(JavaParser.runtimeClasspath())
+                .logCompilationWarningsAndErrors(false)
+                .build()
+                .parse(sources, relativeTo, ctx)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Method to parse in-memory Java sources with the benchmark runtime classpath
+     * @param sources The Java sources to parse
+     * @return The parsed LSTs
+     */
+    public static List<SourceFile> parse(String... sources) {
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        return JavaParser.fromJavaVersion()
+                .classpath(JavaParser.runtimeClasspath())
+                .logCompilationWarningsAndErrors(false)
+                .build()
+                .parse(ctx, sources)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Method to replicate parsed LSTs until the requested number of compilation units is reached.
+     * Each copy gets a unique id and source path so recipes treat it as a distinct file.
+     * @param templates The parsed LSTs to copy
+     * @param count The number of compilation units to produce
+     * @return A list of exactly count compilation units
+     */
+    public static List<SourceFile> replicate(List<SourceFile> templates, int count) {
+        List<SourceFile> copies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SourceFile template = templates.get(i % templates.size());
+            Path copyPath = Paths.get("copy-" + (i / templates.size())).resolve(template.getSourcePath());
+            copies.add(template.<SourceFile>withId(Tree.randomId()).withSourcePath(copyPath));
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,34 @@
+package com.azure.recipes.core.benchmarks;
+
+import com.azure.recipes.core.v2.FusedRecipe;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+
+import java.util.List;
+
+/**
+ * TraversalCountReport runs the fused MigrateAzureCoreSamplesToAzureCoreV2 composite over the sample sources
+ * and prints how many traversals of the source files the recipes made, with and without fusion.
+ * --------------------------------------------------
+ * Run with:
+ * java -cp target/benchmarks.jar com.azure.recipes.core.benchmarks.TraversalCountReport [fileCount]
+ * --------------------------------------------------
+ */
+public final class TraversalCountReport {
+
+    private TraversalCountReport() {
+    }
+
+    public static void main(String[] args) {
+        int fileCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        List<SourceFile> sources = SampleFixtures.replicate(SampleFixtures.parseSamples(), fileCount);
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        BenchmarkRecipes.byName(BenchmarkRecipes.FUSED_COMPOSITE).run(new InMemoryLargeSourceSet(sources), ctx);
+
+        FusedRecipe.TraversalCount count = FusedRecipe.traversalCount(ctx);
+        System.out.printf("%n%-12s %22s %22s%n", "Files", "Traversals (unfused)", "Traversals (fused)");
+        System.out.printf("%-12d %22d %22d%n", fileCount, count.getUnfused(), count.getFused());
+    }
+}
@@ -0,0 +1,299 @@
+package com.azure.recipes.core.cli;
+
+import com.azure.recipes.core.runner.RunnerOptions;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CliArguments holds the parsed command line of a MigrationCli.
+ * --------------------------------------------------
+ * Usage:
+ * [dryRun|run] [options] [directory] [sources]
+ * serve|stop [--port port]
+ * --------------------------------------------------
+ * The goals are named after the goals of the rewrite-maven-plugin. dryRun, the default, writes the changes to a
+ * patch file, and run writes them to the source files. The directory defaults to the working directory, and the
+ * sources, when given, are the only sources of the directory migrated, while the other sources of their modules are
+ * still parsed so that the given sources are attributed with the classes they declare. serve starts a
+ * MigrationDaemon and stop stops it.
+ */
+final class CliArguments {
+
+    static final String DRY_RUN = "dryRun";
+
+    static final String RUN = "run";
+
+    static final String SERVE = "serve";
+
+    static final String STOP = "stop";
+
+    static final String DEFAULT_PATCH_FILE = "target/rewrite/rewrite.patch";
+
+    static final String USAGE = "Usage: java -jar rewrite-java-core-cli.jar [dryRun|run] [options] [directory] [sources]\n"
+            + "       java -jar rewrite-java-core-cli.jar serve|stop [--port <port>] [options]\n"
+            + "Options:\n"
+            + "  --recipes <names>         Comma separated recipes to run, default " + RunnerOptions.DEFAULT_RECIPE + "\n"
+            + "  --patch <file>            Patch file written by dryRun, and by run when given,\n"
+            + "                            default <directory>/" + DEFAULT_PATCH_FILE + "\n"
+            + "  --fail-on-changes         Exit with 3 when the recipes change a file\n"
+            + "  --classpath <paths>       Classpath used for type attribution, default the classpath of the CLI\n"
+            + "  --parallelism <n>         Number of threads, default the number of processors\n"
+            + "  --parse-batch-size <n>    Most sources of a module parsed together\n"
+            + "  --heap-budget <bytes>     Heap the LSTs migrated at the same time may take\n"
+            + "  --cache-directory <dir>   Result cache, relative to the directory, e.g. " + RunnerOptions.DEFAULT_CACHE_DIRECTORY + "\n"
+            + "  --cache-lsts              Also keep the parsed LSTs in the cache directory\n"
+            + "  --prefilter               Skip sources without any name the recipes look for\n"
+            + "  --since-ref <ref>         Migrate only the sources changed since a git ref\n"
+            + "  --no-fuse                 Run the recipes one traversal each instead of through FusedRecipe\n"
+            + "  --daemon <port>           Send the migration to the daemon listening on the port, if any\n"
+            + "  --port <port>             Port the daemon listens on, default " + MigrationDaemon.DEFAULT_PORT + "\n"
+            + "  --help                    Print this message";
+
+    private final String goal;
+
+    private final Path baseDir;
+
+    @Nullable
+    private final Path patchFile;
+
+    @Nullable
+    private final List<Path> sources;
+
+    private final boolean failOnChanges;
+
+    @Nullable
+    private final Integer daemonPort;
+
+    private final int port;
+
+    private final RunnerOptions options;
+
+    private CliArguments(String goal, Path baseDir, @Nullable Path patchFile, @Nullable List<Path> sources,
+                         boolean failOnChanges, @Nullable Integer daemonPort, int port, RunnerOptions options) {
+        this.goal = goal;
+        this.baseDir = baseDir;
+        this.patchFile = patchFile;
+        this.sources = sources;
+        this.failOnChanges = failOnChanges;
+        this.daemonPort = daemonPort;
+        this.port = port;
+        this.options = options;
+    }
+
+    /**
+     * Method to parse a command line, resolving relative paths against the working directory of the JVM
+     * @param args The command line arguments
+     * @return The parsed arguments
+     * @throws IllegalArgumentException If an argument is unknown, misses its value or has a malformed value
+     */
+    static CliArguments parse(String... args) {
+        return parse(Paths.get("").toAbsolutePath(), args);
+    }
+
+    /**
+     * Method to parse a command line
+     * @param workingDirectory The directory relative paths are resolved against, e.g. the working directory of the
+     * client of a MigrationDaemon
+     * @param args The command line arguments
+     * @return The parsed arguments
+     * @throws IllegalArgumentException If an argument is unknown, misses its value or has a malformed value, or if a
+     * source is not a file of the directory
+     */
+    static CliArguments parse(Path workingDirectory, String... args) {
+        String goal = DRY_RUN;
+        Path baseDir = null;
+        Path patchFile = null;
+        List<String> sourceArgs = new ArrayList<>();
+        boolean failOnChanges = false;
+        Integer daemonPort = null;
+        int port = MigrationDaemon.DEFAULT_PORT;
+        RunnerOptions.RunnerOptionsBuilder options = RunnerOptions.builder();
+        int i = 0;
+        if (args.length > 0 && (args[0].equals(DRY_RUN) || args[0].equals(RUN) || args[0].equals(SERVE) || args[0].equals(STOP))) {
+            goal = args[i++];
+        }
+        for (; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--recipes":
+                    options.recipeName(value(args, i++));
+                    break;
+                case "--patch":
+                    patchFile = workingDirectory.resolve(value(args, i++));
+                    break;
+                case "--fail-on-changes":
+                    failOnChanges = true;
+                    break;
+                case "--classpath":
+                    options.classpath(paths(workingDirectory, value(args, i++)));
+                    break;
+                case "--parallelism":
+                    options.parallelism(Integer.parseInt(number(args, i++)));
+                    break;
+                case "--parse-batch-size":
+                    options.parseBatchSize(Integer.parseInt(number(args, i++)));
+                    break;
+                case "--heap-budget":
+                    options.heapBudget(Long.parseLong(number(args, i++)));
+                    break;
+                case "--cache-directory":
+                    options.cacheDirectory(Paths.get(value(args, i++)));
+                    break;
+                case "--cache-lsts":
+                    options.cacheLsts(true);
+                    break;
+                case "--prefilter":
+                    options.prefilter(true);
+                    break;
+                case "--since-ref":
+                    options.sinceRef(value(args, i++));
+                    break;
+                case "--no-fuse":
+                    options.fused(false);
+                    break;
+                case "--daemon":
+                    daemonPort = Integer.parseInt(number(args, i++));
+                    break;
+                case "--port":
+                    port = Integer.parseInt(number(args, i++));
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                    if (baseDir == null) {
+                        baseDir = workingDirectory.resolve(arg);
+                    } else {
+                        sourceArgs.add(arg);
+                    }
+            }
+        }
+        baseDir = (baseDir == null ? workingDirectory : baseDir).toAbsolutePath().normalize();
+        if (patchFile == null && goal.equals(DRY_RUN)) {
+            patchFile = baseDir.resolve(DEFAULT_PATCH_FILE);
+        }
+        return new CliArguments(goal, baseDir, patchFile, sources(workingDirectory, baseDir, sourceArgs),
+                failOnChanges, daemonPort, port, options.build());
+    }
+
+    /**
+     * Method to resolve the sources of a command line, keeping the Java sources only, so that e.g. a pre-commit
+     * hook can pass every staged file
+     * @return The sources, or null when none are given and the whole directory is migrated
+     */
+    @Nullable
+    private static List<Path> sources(Path workingDirectory, Path baseDir, List<String> sourceArgs) {
+        if (sourceArgs.isEmpty()) {
+            return null;
+        }
+        List<Path> sources = new ArrayList<>();
+        for (String sourceArg : sourceArgs) {
+            Path source = workingDirectory.resolve(sourceArg).toAbsolutePath().normalize();
+            if (!source.startsWith(baseDir) || !Files.isRegularFile(source)) {
+                throw new IllegalArgumentException(sourceArg + " is not a file of " + baseDir);
+            }
+            if (source.toString().endsWith(".java")) {
+                sources.add(source);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Method to check if a command line asks for the usage message
+     * @param args The command line arguments
+     * @return True if --help or -h is given
+     */
+    static boolean isHelp(String... args) {
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String value(String[] args, int i) {
+        if (i + 1 >= args.length) {
+            throw new IllegalArgumentException("Missing value of " + args[i]);
+        }
+        return args[i + 1];
+    }
+
+    private static String number(String[] args, int i) {
+        String value = value(args, i);
+        if (!value.matches("\\d+")) {
+            throw new IllegalArgumentException("The value of " + args[i] + " must be a number, got " + value);
+        }
+        return value;
+    }
+
+    private static List<Path> paths(Path workingDirectory, String pathList) {
+        List<Path> paths = new ArrayList<>();
+        for (String entry : pathList.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                paths.add(workingDirectory.resolve(entry));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Method to get the goal, dryRun, run, serve or stop
+     */
+    String getGoal() {
+        return goal;
+    }
+
+    /**
+     * Method to get the absolute directory to migrate
+     */
+    Path getBaseDir() {
+        return baseDir;
+    }
+
+    /**
+     * Method to get the patch file to write, null when run is not asked for a patch
+     */
+    @Nullable
+    Path getPatchFile() {
+        return patchFile;
+    }
+
+    /**
+     * Method to get the absolute sources to migrate, null when the whole directory is migrated
+     */
+    @Nullable
+    List<Path> getSources() {
+        return sources;
+    }
+
+    boolean isFailOnChanges() {
+        return failOnChanges;
+    }
+
+    /**
+     * Method to get the port of the daemon to send a migration to, null to migrate in this JVM
+     */
+    @Nullable
+    Integer getDaemonPort() {
+        return daemonPort;
+    }
+
+    /**
+     * Method to get the port the daemon of serve and stop listens on
+     */
+    int getPort() {
+        return port;
+    }
+
+    RunnerOptions getOptions() {
+        return options;
+    }
+}
@@ -0,0 +1,189 @@
+package com.azure.recipes.core.cli;
+
+import com.azure.recipes.core.runner.FileChange;
+import com.azure.recipes.core.runner.MigrationRunner;
+import com.azure.recipes.core.runner.PatchWriter;
+import com.azure.recipes.core.runner.RunnerOptions;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * MigrationCli is the main class of the executable jar of rewrite-java-core-cli. It runs the migration recipes over a
+ * directory with a MigrationRunner, without starting Maven or resolving the rewrite-maven-plugin.
+ * --------------------------------------------------
+ * Run with:
+ * java -jar target/rewrite-java-core-cli.jar [dryRun|run] [options] [directory] [sources]
+ * java -jar target/rewrite-java-core-cli.jar serve|stop [--port port]
+ * --------------------------------------------------
+ * The jar bundles the recipes, their rewrite.yml, the clientcore classpath jar of the recipe templates and azure-core,
+ * so the sources of the directory are attributed against azure-core without any classpath option. The CLI exits with
+ * 0 once the patch or the source files are written, with 1 after printing the error of a failed run, with 2 on a
+ * malformed command line, and with 3 when --fail-on-changes is given and a source file would change.
+ * --------------------------------------------------
+ * With --daemon, a migration is sent to the MigrationDaemon started by serve, which answers with the same output and
+ * exit code from a JVM where the parser, the recipes and their templates are already warm. When no daemon listens on
+ * the port, the migration is run by the CLI itself.
+ */
+public final class MigrationCli {
+
+    static final int EXIT_SUCCESS = 0;
+    static final int EXIT_FAILURE = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_CHANGES = 3;
+
+    private MigrationCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Method to run the CLI
+     * @param args The command line arguments
+     * @param out The stream the changed files and the patch location are reported to
+     * @param err The stream errors and the usage message are reported to
+     * @return The exit code
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        return run(Paths.get("").toAbsolutePath(), args, out, err, null);
+    }
+
+    /**
+     * Method to run a command line, in the CLI or for a client of a MigrationDaemon
+     * @param workingDirectory The directory relative paths are resolved against
+     * @param args The command line arguments
+     * @param out The stream the changed files and the patch location are reported to
+     * @param err The stream errors and the usage message are reported to
+     * @param daemon The daemon running the command line for a client, which provides the warm runners, or null
+     * @return The exit code
+     */
+    static int run(Path workingDirectory, String[] args, PrintStream out, PrintStream err, @Nullable MigrationDaemon daemon) {
+        if (CliArguments.isHelp(args)) {
+            out.println(CliArguments.USAGE);
+            return EXIT_SUCCESS;
+        }
+        CliArguments arguments;
+        try {
+            arguments = CliArguments.parse(workingDirectory, args);
+            if (daemon != null && arguments.getGoal().equals(CliArguments.SERVE)) {
+                throw new IllegalArgumentException("A daemon can not serve another daemon");
+            }
+            if (daemon != null) {
+                MigrationDaemon.checkWithin(workingDirectory, arguments);
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(CliArguments.USAGE);
+            return EXIT_USAGE;
+        }
+        try {
+            switch (arguments.getGoal()) {
+                case CliArguments.SERVE:
+                    return MigrationDaemon.serve(arguments, out);
+                case CliArguments.STOP:
+                    if (daemon != null) {
+                        daemon.close();
+                        out.println("Stopped the migration daemon on port " + daemon.getPort());
+                        return EXIT_SUCCESS;
+                    }
+                    return send(arguments.getPort(), workingDirectory, args, out, err);
+                default:
+                    if (daemon == null && arguments.getDaemonPort() != null) {
+                        Integer exitCode = MigrationDaemon.send(arguments.getDaemonPort(), workingDirectory, args, out);
+                        if (exitCode != null) {
+                            return exitCode;
+                        }
+                        err.println("No migration daemon on port " + arguments.getDaemonPort() + ", migrating without it");
+                    }
+                    int changed = migrate(arguments, out, daemon == null ? MigrationRunner::new : daemon::runner);
+                    return changed > 0 && arguments.isFailOnChanges() ? EXIT_CHANGES : EXIT_SUCCESS;
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace(err);
+            return EXIT_FAILURE;
+        }
+    }
+
+    /**
+     * Method to send a command line to the daemon on a port, failing when there is none
+     */
+    private static int send(int port, Path workingDirectory, String[] args, PrintStream out, PrintStream err) throws IOException {
+        Integer exitCode = MigrationDaemon.send(port, workingDirectory, args, out);
+        if (exitCode == null) {
+            err.println("No migration daemon on port " + port);
+            return EXIT_FAILURE;
+        }
+        return exitCode;
+    }
+
+    /**
+     * Method to migrate the directory of a command line, reporting every changed file
+     * @param arguments The parsed command line
+     * @param out The stream the changed files and the patch location are reported to
+     * @param runners The runner of the options of a run, e.g. a new MigrationRunner
+     * @return The number of changed source files
+     * @throws IOException If the patch file can not be written
+     */
+    static int migrate(CliArguments arguments, PrintStream out, Function<RunnerOptions, MigrationRunner> runners) throws IOException {
+        Path baseDir = arguments.getBaseDir();
+        boolean dryRun = arguments.getGoal().equals(CliArguments.DRY_RUN);
+        Consumer<FileChange> report = change -> {
+            out.println((dryRun ? "These recipes would make changes to " : "Changes have been made to ")
+                    + change.getSourcePath() + ":");
+            for (String recipe : change.getRecipes()) {
+                out.println("    " + recipe);
+            }
+        };
+        Consumer<FileChange> consumer = dryRun ? report : report.andThen(change -> write(baseDir, change));
+
+        MigrationRunner runner = runners.apply(arguments.getOptions());
+        // Given sources are visited with the other sources of their modules, which are parsed for their types only
+        List<Path> sources = MigrationRunner.findSources(baseDir);
+        Set<Path> targets = arguments.getSources() == null ? null : new HashSet<>(arguments.getSources());
+        int changed;
+        if (arguments.getPatchFile() == null) {
+            changed = runner.run(baseDir, sources, targets, consumer);
+        } else {
+            try (PatchWriter patch = new PatchWriter(arguments.getPatchFile())) {
+                changed = runner.run(baseDir, sources, targets, consumer.andThen(patch));
+            }
+            if (changed > 0) {
+                out.println("Patch file available:");
+                out.println("    " + arguments.getPatchFile());
+            }
+        }
+        if (changed == 0) {
+            out.println("No changes made by " + arguments.getOptions().getRecipeName());
+        }
+        return changed;
+    }
+
+    /**
+     * Method to write the content of a changed source file, or delete it when the recipes deleted it
+     */
+    private static void write(Path baseDir, FileChange change) {
+        Path source = baseDir.resolve(change.getSourcePath());
+        try {
+            if (change.getAfter() == null) {
+                Files.deleteIfExists(source);
+            } else {
+                Files.write(source, change.getAfter().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write " + source, e);
+        }
+    }
+}
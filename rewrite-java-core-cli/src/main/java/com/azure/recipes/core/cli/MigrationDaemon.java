@@ -0,0 +1,385 @@
+package com.azure.recipes.core.cli;
+
+import com.azure.recipes.core.runner.MigrationRunner;
+import com.azure.recipes.core.runner.RunnerOptions;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MigrationDaemon keeps a JVM with warm MigrationRunners listening on a loopback port, so that an IDE or a pre-commit
+ * hook can migrate a few files without paying for the JVM start, the recipe lookup and the parser warm-up every time.
+ * --------------------------------------------------
+ * Run with:
+ * java -jar target/rewrite-java-core-cli.jar serve [--port port] [options]
+ * java -jar target/rewrite-java-core-cli.jar dryRun --daemon port [options] [directory] [sources]
+ * java -jar target/rewrite-java-core-cli.jar stop [--port port]
+ * --------------------------------------------------
+ * A runner is kept for every RunnerOptions the daemon is asked for, with its recipes, their compiled JavaTemplates and,
+ * with reuseParsers, its parsers and the classpath they read. serve warms up the runner of its own options by migrating
+ * a source that uses the azure-core types of the recipes before it reports that it listens.
+ * --------------------------------------------------
+ * A request is the token of the daemon, the absolute working directory of the client and its command line, one line
+ * each and ended by an empty line. The answer is the output of the command line, ended by a line with its exit code, e.g.
+ * printf "$(cat ~/.rewrite-java-core/daemon-7431.token)\n/path/to/repo\ndryRun\nsrc/main/java/com/example/Client.java\n\n" | nc 127.0.0.1 7431
+ * --------------------------------------------------
+ * Every request runs with the permissions of the daemon, so only connections from the same machine are accepted and
+ * only requests with the token are answered. The token is random per daemon and written to a file named after the
+ * port, e.g. ~/.rewrite-java-core/daemon-7431.token, that only the user of the daemon can read. The directory, the
+ * patch file and the cache directory of a request must be in the working directory of the client.
+ */
+final class MigrationDaemon implements Closeable {
+
+    static final int DEFAULT_PORT = 7431;
+
+    static final String EXIT_CODE = "exit ";
+
+    private static final int MAX_RUNNERS = 8;
+
+    private static final String WARM_UP_SOURCE = "package com.example;\n"
+            + "import com.azure.core.http.policy.FixedDelayOptions;\n"
+            + "import com.azure.core.http.policy.HttpLogDetailLevel;\n"
+            + "import com.azure.core.http.policy.HttpLogOptions;\n"
+            + "import com.azure.core.http.policy.RetryOptions;\n"
+            + "import com.azure.core.http.rest.Response;\n"
+            + "import com.azure.core.util.BinaryData;\n"
+            + "import com.azure.core.util.Context;\n"
+            + "import com.azure.core.util.serializer.TypeReference;\n"
+            + "import java.time.Duration;\n"
+            + "import java.util.List;\n"
+            + "public class WarmUp {\n"
+            + "    Response<String> response;\n"
+            + "    Context context = Context.NONE;\n"
+            + "    HttpLogOptions logOptions = new HttpLogOptions().setLogLevel(HttpLogDetailLevel.BODY_AND_HEADERS);\n"
+            + "    RetryOptions retryOptions = new RetryOptions(new FixedDelayOptions(3, Duration.ofSeconds(1)));\n"
+            + "    List<String> toList(BinaryData data) {\n"
+            + "        return data.toObject(new TypeReference<List<String>>() { });\n"
+            + "    }\n"
+            + "}\n";
+
+    private final ServerSocket serverSocket;
+
+    private final String token;
+
+    private final Path tokenFile;
+
+    /**
+     * The runners of the latest options the daemon was asked for, by options
+     */
+    private final Map<RunnerOptions, MigrationRunner> runners = new LinkedHashMap<RunnerOptions, MigrationRunner>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RunnerOptions, MigrationRunner> eldest) {
+            return size() > MAX_RUNNERS;
+        }
+    };
+
+    /**
+     * Constructor for MigrationDaemon, which generates the token of the daemon and writes it to its token file
+     * @param port The loopback port to listen on, or 0 for any free port
+     * @throws IOException If the port can not be bound or the token file can not be written
+     */
+    MigrationDaemon(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        try {
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : random) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            this.token = hex.toString();
+            this.tokenFile = writeToken(getPort(), token);
+        } catch (IOException | RuntimeException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method to get the file the token of the daemon on a port is written to
+     * @param port The port of the daemon
+     * @return The token file, in the .rewrite-java-core directory of the home of the user
+     */
+    static Path tokenFile(int port) {
+        return Paths.get(System.getProperty("user.home"), ".rewrite-java-core", "daemon-" + port + ".token");
+    }
+
+    /**
+     * Method to write the token of the daemon on a port to a new file that only the owner can read and write
+     */
+    private static Path writeToken(int port, String token) throws IOException {
+        Path tokenFile = tokenFile(port);
+        Files.createDirectories(tokenFile.getParent());
+        // The token file of a daemon that was not stopped is replaced rather than written through
+        Files.deleteIfExists(tokenFile);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(tokenFile);
+            AclFileAttributeView acl = Files.getFileAttributeView(tokenFile, AclFileAttributeView.class);
+            if (acl == null) {
+                Files.delete(tokenFile);
+                throw new IOException("Unable to restrict the permissions of " + tokenFile);
+            }
+            acl.setAcl(Collections.singletonList(AclEntry.newBuilder()
+                    .setType(AclEntryType.ALLOW)
+                    .setPrincipal(acl.getOwner())
+                    .setPermissions(AclEntryPermission.values())
+                    .build()));
+        }
+        Files.write(tokenFile, token.getBytes(StandardCharsets.UTF_8));
+        return tokenFile;
+    }
+
+    /**
+     * Method to start a daemon and answer requests until it is stopped
+     * @param arguments The command line of serve, with the port and the options of the runner to warm up
+     * @param out The stream the daemon reports it listens to
+     * @return The exit code once the daemon is stopped
+     * @throws IOException If the port can not be bound or the token file can not be written
+     */
+    static int serve(CliArguments arguments, PrintStream out) throws IOException {
+        try (MigrationDaemon daemon = new MigrationDaemon(arguments.getPort())) {
+            daemon.warmUp(arguments.getOptions());
+            out.println("Migration daemon listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + daemon.getPort()
+                    + ", with its token in " + daemon.tokenFile);
+            daemon.serve();
+        }
+        return MigrationCli.EXIT_SUCCESS;
+    }
+
+    /**
+     * Method to send a command line to the daemon on a port, writing its output as it comes
+     * @param port The port of the daemon
+     * @param workingDirectory The directory relative paths of the command line are resolved against
+     * @param args The command line, without the --daemon option, which is dropped if present
+     * @param out The stream the output of the daemon is written to
+     * @return The exit code of the command line, or null when no daemon of this user listens on the port
+     * @throws IOException If the token can not be read or the daemon closes the connection before it answers
+     */
+    @Nullable
+    static Integer send(int port, Path workingDirectory, String[] args, PrintStream out) throws IOException {
+        Path tokenFile = tokenFile(port);
+        if (!Files.isRegularFile(tokenFile)) {
+            return null;
+        }
+        String token = new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8).trim();
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (ConnectException e) {
+            socket.close();
+            return null;
+        }
+        try (Socket connection = socket) {
+            Writer writer = new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(token + "\n");
+            writer.write(workingDirectory.toAbsolutePath() + "\n");
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--daemon")) {
+                    i++;
+                } else {
+                    writer.write(args[i] + "\n");
+                }
+            }
+            writer.write("\n");
+            writer.flush();
+
+            // The last line is the exit code, so every line is written once the next one is read
+            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            String previous = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (previous != null) {
+                    out.println(previous);
+                }
+                previous = line;
+            }
+            if (previous == null || !previous.startsWith(EXIT_CODE)) {
+                throw new IOException("The migration daemon on port " + port + " closed the connection without an exit code");
+            }
+            return Integer.parseInt(previous.substring(EXIT_CODE.length()));
+        }
+    }
+
+    /**
+     * Method to get the port the daemon listens on
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Method to get the runner of the options of a request, keeping its parsers between requests
+     * @param options The options of the request
+     * @return The runner, created on the first request with these options
+     */
+    MigrationRunner runner(RunnerOptions options) {
+        RunnerOptions runnerOptions = options.toBuilder().reuseParsers(true).build();
+        synchronized (runners) {
+            return runners.computeIfAbsent(runnerOptions, MigrationRunner::new);
+        }
+    }
+
+    /**
+     * Method to migrate a source using the azure-core types of the recipes, so that the recipes are looked up, the
+     * parser has read the classpath and the templates are compiled before the first request
+     * @param options The options of the runner to warm up. The source is not in a git repository and is not cached,
+     * so sinceRef and cacheDirectory are ignored.
+     * @throws IOException If the source can not be written
+     */
+    void warmUp(RunnerOptions options) throws IOException {
+        Path directory = Files.createTempDirectory("rewrite-daemon");
+        Path source = directory.resolve("WarmUp.java");
+        try {
+            Files.write(source, WARM_UP_SOURCE.getBytes(StandardCharsets.UTF_8));
+            runner(options.toBuilder().sinceRef(null).cacheDirectory(null).build())
+                    .run(directory, Collections.singletonList(source), change -> { });
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Method to answer requests, each on a thread of its own, until the daemon is closed
+     * @throws IOException If a connection can not be accepted
+     */
+    void serve() throws IOException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket connection;
+                try {
+                    connection = serverSocket.accept();
+                } catch (SocketException e) {
+                    if (serverSocket.isClosed()) {
+                        break;
+                    }
+                    throw e;
+                }
+                executor.execute(() -> answer(connection));
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Method to answer a request with its output and exit code, or with the error that kept it from running
+     */
+    private void answer(Socket socket) {
+        try (Socket connection = socket) {
+            PrintStream out = new PrintStream(connection.getOutputStream(), true, StandardCharsets.UTF_8.name());
+            int exitCode;
+            try {
+                exitCode = run(connection, out);
+            } catch (IOException | RuntimeException e) {
+                out.println("The migration daemon failed to answer the request: " + e);
+                exitCode = MigrationCli.EXIT_FAILURE;
+            }
+            out.println(EXIT_CODE + exitCode);
+        } catch (IOException e) {
+            // The connection is lost, so there is no client left to answer
+        }
+    }
+
+    /**
+     * Method to read a request and run its command line, once its token is checked
+     * @return The exit code of the command line
+     */
+    private int run(Socket connection, PrintStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+        String requestToken = reader.readLine();
+        if (requestToken == null || !MessageDigest.isEqual(requestToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8))) {
+            out.println("The request does not start with the token of the daemon, read from " + tokenFile);
+            return MigrationCli.EXIT_USAGE;
+        }
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null && !line.isEmpty()) {
+            lines.add(line);
+        }
+        if (lines.isEmpty() || !Paths.get(lines.get(0)).isAbsolute()) {
+            out.println("The request has no absolute working directory");
+            return MigrationCli.EXIT_USAGE;
+        }
+        String[] args = lines.subList(1, lines.size()).toArray(new String[0]);
+        return MigrationCli.run(Paths.get(lines.get(0)), args, out, out, this);
+    }
+
+    /**
+     * Method to check that a request only reads and writes the working directory of its client
+     * @param workingDirectory The working directory of the client
+     * @param arguments The parsed command line of the request
+     * @throws IllegalArgumentException If the directory, the patch file or the cache directory is outside of the
+     * working directory
+     */
+    static void checkWithin(Path workingDirectory, CliArguments arguments) {
+        Path root = workingDirectory.toAbsolutePath().normalize();
+        List<Path> paths = new ArrayList<>();
+        paths.add(arguments.getBaseDir());
+        if (arguments.getPatchFile() != null) {
+            paths.add(arguments.getPatchFile());
+        }
+        if (arguments.getOptions().getCacheDirectory() != null) {
+            paths.add(arguments.getBaseDir().resolve(arguments.getOptions().getCacheDirectory()));
+        }
+        for (Path path : paths) {
+            if (!path.toAbsolutePath().normalize().startsWith(root)) {
+                throw new IllegalArgumentException(path + " is outside of the working directory " + root);
+            }
+        }
+    }
+
+    /**
+     * Method to stop listening, letting the requests being answered finish
+     * @throws IOException If the port can not be released
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            serverSocket.close();
+        } finally {
+            Files.deleteIfExists(tokenFile);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.azure.recipes.core.cli;
+
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MigrationCliTest is used to test out the command line of the executable jar
+ */
+public class MigrationCliTest {
+
+    @TempDir
+    Path baseDir;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    /**
+     * This test method is used to make sure that a dry run writes the patch to the default patch file
+     * and leaves the sources unchanged
+     */
+    @Test
+    void testDryRunWritesPatch() throws IOException {
+        Path source = writeSource("Testing");
+        String before = read(source);
+
+        assertThat(run("dryRun", "--parallelism", "1", baseDir.toString())).isEqualTo(MigrationCli.EXIT_SUCCESS);
+
+        assertThat(read(source)).isEqualTo(before);
+        String patch = read(baseDir.resolve(CliArguments.DEFAULT_PATCH_FILE));
+        assertThat(patch).contains("+import io.clientcore.core.http.models.Response;");
+        assertThat(out.toString()).contains("These recipes would make changes to src/main/java/com/example/Testing.java:");
+    }
+
+    /**
+     * This test method is used to make sure that run writes the changes of the given recipes only to the sources
+     */
+    @Test
+    void testRunAppliesRecipeSubset() throws IOException {
+        Path source = writeSource("Testing");
+
+        assertThat(run("run", "--recipes", "com.azure.recipes.core.v2.ResponseRecipe,com.azure.recipes.core.v2.ContextRecipe",
+                "--fail-on-changes", baseDir.toString())).isEqualTo(MigrationCli.EXIT_CHANGES);
+
+        assertThat(read(source)).contains("import io.clientcore.core.http.models.Response;");
+        assertThat(out.toString()).contains("    com.azure.recipes.core.v2.ResponseRecipe");
+        assertThat(baseDir.resolve(CliArguments.DEFAULT_PATCH_FILE)).doesNotExist();
+
+        assertThat(run("run", "--recipes", "com.azure.recipes.core.v2.ResponseRecipe",
+                "--fail-on-changes", baseDir.toString())).isEqualTo(MigrationCli.EXIT_SUCCESS);
+    }
+
+    /**
+     * This test method is used to make sure that a given source is attributed with the classes declared by the other
+     * sources of its module, which are parsed but not migrated
+     */
+    @Test
+    void testGivenSourceUsesHelperClassOfModule() throws IOException {
+        @Language("java") String builder = "package com.azure.ai.translation.text;";
+        builder += "\npublic class TextTranslationClientBuilder {";
+        builder += "\n  public TextTranslationClientBuilder retryOptions(Object retryOptions) { return this; }";
+        builder += "\n}";
+        Path helper = writeSource("src/main/java/com/azure/ai/translation/text/TextTranslationClientBuilder.java", builder);
+        @Language("java") String client = "package com.example;";
+        client += "\nimport com.azure.ai.translation.text.TextTranslationClientBuilder;";
+        client += "\npublic class Client {";
+        client += "\n  TextTranslationClientBuilder builder = new TextTranslationClientBuilder().retryOptions(null);";
+        client += "\n}";
+        Path source = writeSource("src/main/java/com/example/Client.java", client);
+
+        assertThat(run("run", "--parallelism", "1", baseDir.toString(), source.toString())).isEqualTo(MigrationCli.EXIT_SUCCESS);
+
+        assertThat(read(source)).contains("new TextTranslationClientBuilder().httpRetryOptions(null)");
+        assertThat(read(helper)).isEqualTo(builder);
+    }
+
+    /**
+     * This test method is used to make sure that a daemon migrates the sources it is sent only, and stops on request
+     */
+    @Test
+    void testDaemonMigratesGivenSources() throws Exception {
+        Path source = writeSource("Testing");
+        writeSource("Other");
+        MigrationDaemon daemon = new MigrationDaemon(0);
+        String port = Integer.toString(daemon.getPort());
+        Thread serving = serve(daemon);
+        try {
+            // The client runs in the directory it migrates, which is all a daemon lets it read and write
+            assertThat(MigrationCli.run(baseDir, new String[] {"dryRun", "--daemon", port, ".", source.toString()},
+                    new PrintStream(out, true), new PrintStream(err, true), null)).isEqualTo(MigrationCli.EXIT_SUCCESS);
+
+            assertThat(out.toString()).contains("These recipes would make changes to src/main/java/com/example/Testing.java:");
+            String patch = read(baseDir.resolve(CliArguments.DEFAULT_PATCH_FILE));
+            assertThat(patch).contains("Testing.java").doesNotContain("Other.java");
+            assertThat(run("stop", "--port", port)).isEqualTo(MigrationCli.EXIT_SUCCESS);
+        } finally {
+            daemon.close();
+            serving.join();
+        }
+    }
+
+    /**
+     * This test method is used to make sure that a daemon writes its token to a file only its owner can read, and
+     * refuses requests without the token or writing outside of the working directory of the client
+     */
+    @Test
+    void testDaemonRejectsUntrustedRequests() throws Exception {
+        writeSource("Testing");
+        MigrationDaemon daemon = new MigrationDaemon(0);
+        Path tokenFile = MigrationDaemon.tokenFile(daemon.getPort());
+        Thread serving = serve(daemon);
+        try {
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile))).isEqualTo("rw-------");
+            }
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+                socket.getOutputStream().write(("not-the-token\n" + baseDir + "\nstop\n\n").getBytes(StandardCharsets.UTF_8));
+                String answer = new String(readAll(socket.getInputStream()), StandardCharsets.UTF_8);
+                assertThat(answer).contains("token").endsWith(MigrationDaemon.EXIT_CODE + MigrationCli.EXIT_USAGE + System.lineSeparator());
+            }
+
+            PrintStream client = new PrintStream(out, true);
+            Path outside = baseDir.getParent().resolve("outside.patch");
+            assertThat(MigrationDaemon.send(daemon.getPort(), baseDir, new String[] {"dryRun", "--patch", "../outside.patch"}, client))
+                    .isEqualTo(MigrationCli.EXIT_USAGE);
+            assertThat(MigrationDaemon.send(daemon.getPort(), baseDir.resolve("src"), new String[] {"dryRun", ".."}, client))
+                    .isEqualTo(MigrationCli.EXIT_USAGE);
+            assertThat(out.toString()).contains("is outside of the working directory");
+            assertThat(outside).doesNotExist();
+        } finally {
+            daemon.close();
+            serving.join();
+        }
+        assertThat(tokenFile).doesNotExist();
+    }
+
+    /**
+     * This test method is used to make sure that a malformed command line prints the usage message
+     */
+    @Test
+    void testMalformedCommandLine() {
+        assertThat(run("--parallelism", "many")).isEqualTo(MigrationCli.EXIT_USAGE);
+        assertThat(err.toString()).contains("The value of --parallelism must be a number, got many", "Usage:");
+        assertThat(run("dryRun", "--unknown")).isEqualTo(MigrationCli.EXIT_USAGE);
+        assertThat(run("--help")).isEqualTo(MigrationCli.EXIT_SUCCESS);
+    }
+
+    private static Thread serve(MigrationDaemon daemon) {
+        Thread serving = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        serving.start();
+        return serving;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    private int run(String... args) {
+        return MigrationCli.run(args, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    private Path writeSource(String className) throws IOException {
+        @Language("java") String source = "package com.example;";
+        source += "\nimport com.azure.core.http.rest.Response;";
+        source += "\npublic class " + className + " {";
+        source += "\n  Response<String> response = null;";
+        source += "\n}";
+        return writeSource("src/main/java/com/example/" + className + ".java", source);
+    }
+
+    private Path writeSource(String path, String source) throws IOException {
+        Files.write(baseDir.resolve("pom.xml"), "<project/>".getBytes());
+        Path file = baseDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes());
+        return file;
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
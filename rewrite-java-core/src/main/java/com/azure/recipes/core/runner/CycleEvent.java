@@ -0,0 +1,30 @@
+package com.azure.recipes.core.runner;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of one cycle of the recipe over a source file, lasting as long as the cycle.
+ * Only created through RecipeRunContext.
+ */
+@Name("com.azure.recipes.core.runner.Cycle")
+@Label("Recipe Cycle")
+@Category({"Azure SDK", "Rewrite"})
+@Description("A cycle of the migration recipe over a source file")
+@StackTrace(false)
+final class CycleEvent extends Event {
+
+    @Label("Recipe")
+    String recipe;
+
+    @Label("Source Path")
+    @Description("The path of the source file, relative to the base directory")
+    String sourcePath;
+
+    @Label("Cycle")
+    int cycle;
+}
@@ -0,0 +1,87 @@
+package com.azure.recipes.core.runner;
+
+import lombok.Value;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * FileChange is the change a MigrationRunner made to one source file, kept as text so that it does not
+ * hold on to the LSTs of the run.
+ */
+@Value
+public class FileChange {
+
+    /**
+     * The path of the source file, relative to the base directory of the run
+     */
+    String sourcePath;
+
+    /**
+     * The change in unified diff format
+     */
+    String diff;
+
+    /**
+     * The content of the source file after the change, or null if the file is deleted
+     */
+    @Nullable
+    String after;
+
+    /**
+     * The names of the recipes that made the change. When the recipe is run through FusedRecipe, these are
+     * the recipes it ran that changed the source file.
+     */
+    List<String> recipes;
+
+    /**
+     * True if the change was read from the result cache instead of running the recipe
+     */
+    boolean cached;
+
+    /**
+     * Method to capture the change of a recipe run result
+     * @param result The recipe run result
+     * @return The change as text
+     */
+    static FileChange of(Result result) {
+        SourceFile sourceFile = result.getBefore() != null ? result.getBefore() : result.getAfter();
+        String sourcePath = sourceFile == null ? "" : MigrationRunner.normalize(sourceFile.getSourcePath());
+        String after = result.getAfter() == null ? null : result.getAfter().printAll();
+        Set<String> recipes = new LinkedHashSet<>();
+        for (List<Recipe> recipeStack : result.getRecipes()) {
+            // A recipe that ran the recipe that made the change, e.g. FusedRecipe, is not reported itself
+            if (!isExtended(recipeStack, result.getRecipes())) {
+                recipes.add(recipeStack.get(recipeStack.size() - 1).getName());
+            }
+        }
+        return new FileChange(sourcePath, result.diff(), after, new ArrayList<>(recipes), false);
+    }
+
+    /**
+     * Method to check if another recipe stack starts with a recipe stack
+     */
+    private static boolean isExtended(List<Recipe> recipeStack, Collection<List<Recipe>> recipeStacks) {
+        for (List<Recipe> other : recipeStacks) {
+            if (other.size() > recipeStack.size() && other.subList(0, recipeStack.size()).equals(recipeStack)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method to get the line ranges of the change, one per hunk of the diff
+     * @return The line ranges, in the source file before the change
+     */
+    public List<LineRange> lineRanges() {
+        return LineRange.of(diff);
+    }
+}
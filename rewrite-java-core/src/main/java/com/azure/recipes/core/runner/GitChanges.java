@@ -0,0 +1,98 @@
+package com.azure.recipes.core.runner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * GitChanges lists the Java sources of a git working tree that changed since a ref, using the git command
+ * line on the local repository only, so no network access is made.
+ * --------------------------------------------------
+ * A source changed when it differs between the ref and the working tree, whether the change is committed,
+ * staged or not, or when it is untracked and not ignored. Deleted sources are not listed.
+ * --------------------------------------------------
+ */
+final class GitChanges {
+
+    private GitChanges() {
+    }
+
+    /**
+     * Method to list the Java sources changed since a ref
+     * @param baseDir A directory of the working tree; only the sources under it are listed
+     * @param ref The git ref, e.g. origin/main or HEAD~3
+     * @return The absolute, normalized paths of the changed Java sources
+     * @throws IllegalArgumentException If the ref starts with a dash, which git would read as an option
+     */
+    static Set<Path> changedSince(Path baseDir, String ref) {
+        if (ref.startsWith("-")) {
+            throw new IllegalArgumentException("Invalid git ref " + ref + ": a ref cannot start with a dash");
+        }
+        Set<Path> changed = new HashSet<>();
+        List<String> diff = git(baseDir, "diff", "--name-only", "-z", "--relative", "--no-renames",
+                "--diff-filter=d", ref, "--");
+        List<String> untracked = git(baseDir, "ls-files", "-z", "--others", "--exclude-standard");
+        for (List<String> paths : Arrays.asList(diff, untracked)) {
+            for (String path : paths) {
+                if (path.endsWith(".java")) {
+                    changed.add(MigrationRunner.absolute(baseDir.resolve(path)));
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Method to run a git command in a directory
+     * @return The NUL separated paths printed by the command
+     */
+    private static List<String> git(Path directory, String... arguments) {
+        String[] command = new String[arguments.length + 3];
+        command[0] = "git";
+        command[1] = "-C";
+        command[2] = directory.toString();
+        System.arraycopy(arguments, 0, command, 3, arguments.length);
+        Path error = null;
+        try {
+            // The error output goes to a file, so that a full error pipe never blocks git while the output is read
+            error = Files.createTempFile("rewrite-git", ".err");
+            Process process = new ProcessBuilder(command).redirectError(error.toFile()).start();
+            process.getOutputStream().close();
+            byte[] output = readAll(process.getInputStream());
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IllegalStateException("git " + String.join(" ", arguments) + " failed with exit code "
+                        + exitCode + ": " + new String(Files.readAllBytes(error), StandardCharsets.UTF_8).trim());
+            }
+            String paths = new String(output, StandardCharsets.UTF_8);
+            return paths.isEmpty() ? Collections.emptyList() : Arrays.asList(paths.split("\0"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to run git in " + directory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running git in " + directory, e);
+        } finally {
+            if (error != null) {
+                error.toFile().delete();
+            }
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package com.azure.recipes.core.runner;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * JsonLinesReport writes one JSON object per line for every hunk of every change, as soon as the change is
+ * received, so that other tools can consume the report while the run is in progress.
+ * --------------------------------------------------
+ * Example line:
+ * {"file":"src/main/java/Sample.java","recipes":["com.azure.recipes.core.v2.ResponseRecipe"],"startLine":3,"endLine":5,"cached":false}
+ * --------------------------------------------------
+ */
+public final class JsonLinesReport implements Consumer<FileChange>, Closeable {
+
+    private final JsonGenerator generator;
+
+    /**
+     * Constructor for JsonLinesReport
+     * @param reportFile The report file, which is replaced
+     * @throws IOException If the report file can not be created
+     */
+    public JsonLinesReport(Path reportFile) throws IOException {
+        Path parent = reportFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.generator = new JsonFactory().createGenerator(reportFile.toFile(), JsonEncoding.UTF8);
+        // Lines are separated explicitly, not by the generator's root value separator
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public synchronized void accept(FileChange change) {
+        try {
+            for (LineRange lineRange : change.lineRanges()) {
+                generator.writeStartObject();
+                generator.writeStringField("file", change.getSourcePath());
+                generator.writeArrayFieldStart("recipes");
+                for (String recipe : change.getRecipes()) {
+                    generator.writeString(recipe);
+                }
+                generator.writeEndArray();
+                generator.writeNumberField("startLine", lineRange.getStartLine());
+                generator.writeNumberField("endLine", lineRange.getEndLine());
+                generator.writeBooleanField("cached", change.isCached());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to report the change of " + change.getSourcePath(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        generator.close();
+    }
+}
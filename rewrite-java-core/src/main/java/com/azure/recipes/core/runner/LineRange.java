@@ -0,0 +1,45 @@
+package com.azure.recipes.core.runner;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * LineRange is the range of lines of a source file, before the change, covered by one hunk of a unified diff.
+ */
+@Value
+public class LineRange {
+
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -(\\d+)(?:,(\\d+))? \\+\\d+(?:,\\d+)? @@", Pattern.MULTILINE);
+
+    /**
+     * The first line of the range, starting at 1
+     */
+    int startLine;
+
+    /**
+     * The last line of the range, equal to startLine for a pure insertion
+     */
+    int endLine;
+
+    /**
+     * Method to get the line ranges of every hunk of a unified diff
+     * @param diff The unified diff
+     * @return The line ranges, in the order of the hunks
+     */
+    static List<LineRange> of(String diff) {
+        List<LineRange> ranges = new ArrayList<>();
+        Matcher hunk = HUNK_HEADER.matcher(diff);
+        while (hunk.find()) {
+            int start = Integer.parseInt(hunk.group(1));
+            int length = hunk.group(2) == null ? 1 : Integer.parseInt(hunk.group(2));
+            // A hunk that only inserts lines starts after the given line, which is 0 at the top of the file
+            ranges.add(length == 0 ? new LineRange(Math.max(1, start), Math.max(1, start))
+                    : new LineRange(start, start + length - 1));
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,185 @@
+package com.azure.recipes.core.runner;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.ConstructorDetector;
+import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.tree.ParseError;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * LstCache persists the parsed and type-attributed LSTs of a parse batch in Smile format, so that a later
+ * run over the same sources loads them with a memory-mapped read instead of running the Java parser.
+ * --------------------------------------------------
+ * Type attribution of a source file depends on every other file of its batch and on the classpath, so
+ * LSTs are cached per batch. The key of a batch is the SHA-256 of the path and content of its sources,
+ * of the classpath entries with their size and modification time, and of the rewrite-java and Java
+ * versions. The LSTs of a batch are written together, so that the types they share are written once.
+ * --------------------------------------------------
+ * Entries that can not be read, e.g. written by another version of rewrite, are parsed again and
+ * overwritten. Batches with a source that failed to parse are not cached.
+ */
+final class LstCache {
+
+    private static final ObjectMapper MAPPER = mapper();
+
+    private final Path directory;
+
+    private final byte[] environmentKey;
+
+    /**
+     * Constructor for LstCache
+     * @param cacheRoot The root directory of the cache, e.g. target/rewrite-cache
+     * @param classpath The classpath the sources are parsed with
+     */
+    LstCache(Path cacheRoot, Collection<Path> classpath) {
+        this.directory = cacheRoot.resolve("lst");
+        this.environmentKey = environmentKey(classpath);
+    }
+
+    /**
+     * Method to compute the key of a parse batch
+     * @param baseDir The directory source paths are made relative to
+     * @param batch The sources of the batch
+     * @return The key of the batch
+     */
+    String batchKey(Path baseDir, List<Path> batch) {
+        MessageDigest digest = ResultCache.sha256();
+        digest.update(environmentKey);
+        for (Path source : batch) {
+            String sourcePath = MigrationRunner.normalize(baseDir.relativize(source));
+            digest.update(ResultCache.sourceKey(sourcePath, MigrationRunner.read(source)).getBytes(StandardCharsets.UTF_8));
+        }
+        return ResultCache.hex(digest.digest());
+    }
+
+    /**
+     * Method to load the LSTs of a parse batch
+     * @param batchKey The key of the batch, from batchKey
+     * @return The LSTs of the batch, or null if the batch is not in the cache
+     */
+    @Nullable
+    List<SourceFile> get(String batchKey) {
+        Path path = entryPath(batchKey);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Arrays.asList(MAPPER.readValue(new ByteBufferBackedInputStream(buffer), SourceFile[].class));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Method to store the LSTs of a parse batch
+     * @param batchKey The key of the batch, from batchKey
+     * @param sourceFiles The LSTs of the batch
+     */
+    void put(String batchKey, List<SourceFile> sourceFiles) {
+        for (SourceFile sourceFile : sourceFiles) {
+            if (sourceFile instanceof ParseError) {
+                return;
+            }
+        }
+        Path path = entryPath(batchKey);
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            // Write to a temporary file first so that concurrent runs never read a partial entry
+            temporary = Files.createTempFile(directory, batchKey, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                MAPPER.writeValue(out, sourceFiles.toArray(new SourceFile[0]));
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // A batch that can not be written is parsed again by the next run
+            deleteQuietly(temporary);
+        }
+    }
+
+    private Path entryPath(String batchKey) {
+        return directory.resolve(batchKey + ".smile");
+    }
+
+    private static byte[] environmentKey(Collection<Path> classpath) {
+        StringBuilder environment = new StringBuilder(ResultCache.codeVersion(JavaParser.class))
+                .append('\n').append(System.getProperty("java.version"));
+        ResultCache.describeClasspath(classpath, environment);
+        return ResultCache.sha256().digest(environment.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void deleteQuietly(@Nullable Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Left for the next run to overwrite
+            }
+        }
+    }
+
+    /**
+     * Method to create the mapper of the cache, configured like the RecipeSerializer of rewrite-core
+     */
+    private static ObjectMapper mapper() {
+        SmileFactory factory = new SmileFactory();
+        factory.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+        ObjectMapper mapper = JsonMapper.builder(factory)
+                .constructorDetector(ConstructorDetector.USE_PROPERTIES_BASED)
+                .build()
+                .registerModule(new ParameterNamesModule())
+                // The file attributes of a source file hold its creation and modification times
+                .registerModule(new JavaTimeModule())
+                // Source paths are relative, which the URI form Jackson writes paths in would resolve against the working directory
+                .registerModule(new SimpleModule()
+                        .addSerializer(Path.class, ToStringSerializer.instance)
+                        .addDeserializer(Path.class, new FromStringDeserializer<Path>(Path.class) {
+                            @Override
+                            protected Path _deserialize(String value, DeserializationContext context) {
+                                return Paths.get(value);
+                            }
+                        }))
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        return mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withCreatorVisibility(JsonAutoDetect.Visibility.PUBLIC_ONLY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY));
+    }
+}
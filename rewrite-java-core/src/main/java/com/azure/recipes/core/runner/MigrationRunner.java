@@ -0,0 +1,603 @@
+package com.azure.recipes.core.runner;
+
+import com.azure.recipes.core.v2.FusedRecipe;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.table.SourcesFileErrors;
+import org.openrewrite.tree.ParseError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * MigrationRunner parses the Java sources of a directory tree and runs the migration recipe over them
+ * on a fork-join pool, without going through the rewrite-maven-plugin.
+ * --------------------------------------------------
+ * Sources are grouped by module, the nearest directory with a pom.xml or build.gradle, and every module
+ * is parsed by its own parser so that modules are parsed in parallel. The recipe is then run over the
+ * parsed files of a module concurrently, one source file per run.
+ * --------------------------------------------------
+ * Only recipes that look at one source file at a time can be run this way, which is the case for every
+ * recipe of MigrateAzureCoreSamplesToAzureCoreV2, so a recipe tree containing a ScanningRecipe is rejected
+ * when the runner is created. Results are sorted by source path, so the output does
+ * not depend on the parallelism or on the order in which the threads finish.
+ * --------------------------------------------------
+ * With a cache directory, the result of every source file is kept in a ResultCache and files that are
+ * already in it, with the same content of every source of their batch, are not visited again, and batches
+ * without any such miss are not parsed. With cacheLsts, the parsed
+ * LSTs of every batch are also kept in an LstCache and loaded instead of parsing the batch again.
+ * With prefilter, sources that do not contain any token of the Prefilter of the recipe are skipped
+ * before they are read by the parser. With sinceRef, or when targets are given to run, only the sources
+ * changed since a git ref or the targets are visited, while the other sources of their modules are still
+ * parsed for their types.
+ * --------------------------------------------------
+ * Batches are migrated one after another on every thread. Within a batch, the recipe is run over one source
+ * file at a time, and the change of the file is passed on and its LST released before the next file of the
+ * thread is visited, so that a batch holds the LSTs of the files it has not visited yet. With heapBudget,
+ * batches are sized from the source file sizes so that the LSTs of the batches migrated at the same time fit
+ * in the budget, and trees too large for the heap as a whole can be migrated by streaming the changes to a
+ * consumer. With reuseParsers, the parsers are kept between the batches
+ * and runs of a runner, so that a long-lived runner does not read the classpath again for every batch.
+ * --------------------------------------------------
+ * Errors raised by the parser or by a recipe are collected for the whole run. The changes of the other source
+ * files are still passed on and cached, while the files that failed are neither reported as changed nor cached,
+ * and the run then fails with an IllegalStateException naming them.
+ */
+public final class MigrationRunner {
+
+    private static final List<String> MODULE_FILES = Arrays.asList("pom.xml", "build.gradle", "build.gradle.kts");
+
+    private static final List<String> BUILD_OUTPUT_DIRECTORIES = Arrays.asList("target", "build");
+
+    /**
+     * Rough upper estimate of the heap taken by the attributed LST of a source file, per byte of source,
+     * including the part of the parser's type cache the LST keeps alive
+     */
+    static final int LST_BYTES_PER_SOURCE_BYTE = 32;
+
+    private final RunnerOptions options;
+
+    private final Recipe recipe;
+
+    private final String recipeKey;
+
+    @Nullable
+    private final Prefilter prefilter;
+
+    /**
+     * The parsers kept between parse batches when reuseParsers is enabled
+     */
+    private final Queue<JavaParser> idleParsers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor for MigrationRunner
+     * @param options The runner options
+     * @throws IllegalArgumentException If one of the recipes is a ScanningRecipe
+     */
+    public MigrationRunner(RunnerOptions options) {
+        this.options = options;
+        Recipe activated = activate(options.getRecipeName());
+        checkPerFile(activated);
+        this.recipe = options.isFused() ? FusedRecipe.of(activated) : activated;
+        this.recipeKey = ResultCache.recipeKey(activated, options, classpath());
+        this.prefilter = options.isPrefilter() ? Prefilter.of(activated) : null;
+    }
+
+    /**
+     * Method to check that no recipe of a recipe tree is a scanning recipe, which would only scan the single source
+     * file it is run over
+     * @param recipe The recipe of a run
+     * @throws IllegalArgumentException If the recipe or one of the recipes it contains is a ScanningRecipe
+     */
+    static void checkPerFile(Recipe recipe) {
+        if (recipe instanceof ScanningRecipe) {
+            throw new IllegalArgumentException(recipe.getName()
+                    + " is a scanning recipe, which would only see the source file it is run over");
+        }
+        for (Recipe child : recipe.getRecipeList()) {
+            checkPerFile(child);
+        }
+    }
+
+    /**
+     * Method to look up the recipes of a run on the runtime classpath
+     * @param recipeName The name of the recipe, or a comma separated list of recipe names
+     * @return The recipe, or a composite of the named recipes in the order given
+     */
+    static Recipe activate(String recipeName) {
+        List<String> recipeNames = new ArrayList<>();
+        for (String name : recipeName.split(",")) {
+            if (!name.trim().isEmpty()) {
+                recipeNames.add(name.trim());
+            }
+        }
+        return Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(recipeNames);
+    }
+
+    /**
+     * Method to run the recipe over every Java source under a directory
+     * @param baseDir The root of the source tree
+     * @return The changed source files, sorted by path
+     */
+    public List<FileChange> run(Path baseDir) {
+        return run(baseDir, findSources(baseDir));
+    }
+
+    /**
+     * Method to run the recipe over the given Java sources
+     * @param baseDir The directory source paths are made relative to
+     * @param sources The Java sources to migrate
+     * @return The changed source files, sorted by path
+     */
+    public List<FileChange> run(Path baseDir, List<Path> sources) {
+        List<FileChange> changes = new ArrayList<>();
+        run(baseDir, sources, changes::add);
+        changes.sort(Comparator.comparing(FileChange::getSourcePath));
+        return changes;
+    }
+
+    /**
+     * Method to run the recipe over the given Java sources, passing the change of every source file to a
+     * consumer as soon as the file is migrated, so that neither the changes nor the LSTs of the migrated files
+     * have to be kept until the end of the run
+     * --------------------------------------------------
+     * The granularity is one source file: a change read from the result cache is passed on when it is looked
+     * up, and any other change right after the recipe run over its file, before the next file is visited. The
+     * consumer is never called concurrently, and changes arrive in the order the files complete, which depends
+     * on the parallelism; sort them by path when a stable order is needed.
+     * --------------------------------------------------
+     * @param baseDir The directory source paths are made relative to
+     * @param sources The Java sources to migrate
+     * @param consumer The consumer of the changes, e.g. a PatchWriter
+     * @return The number of changed source files
+     * @throws IllegalStateException If a source file failed to parse or the recipe raised an error, once the
+     * changes of the other source files are passed on
+     */
+    public int run(Path baseDir, List<Path> sources, Consumer<FileChange> consumer) {
+        return run(baseDir, sources, null, consumer);
+    }
+
+    /**
+     * Method to run the recipe over the given targets only, while every source of their modules is still parsed
+     * for its types, e.g. the files a pre-commit hook passes that use classes declared in other files
+     * --------------------------------------------------
+     * @param baseDir The directory source paths are made relative to
+     * @param sources The Java sources of the run, e.g. from findSources
+     * @param targets The sources to visit, or null to visit every source. With sinceRef,
+     * only the targets changed since the ref are visited.
+     * @param consumer The consumer of the changes, e.g. a PatchWriter
+     * @return The number of changed source files
+     * @throws IllegalStateException If a source file failed to parse or the recipe raised an error, once the
+     * changes of the other source files are passed on
+     */
+    public int run(Path baseDir, List<Path> sources, @Nullable Set<Path> targets, Consumer<FileChange> consumer) {
+        Set<Path> visited = targets == null ? null
+                : targets.stream().map(MigrationRunner::absolute).collect(Collectors.toSet());
+        if (options.getSinceRef() != null) {
+            Set<Path> changed = GitChanges.changedSince(baseDir, options.getSinceRef());
+            if (visited != null) {
+                changed.retainAll(visited);
+            }
+            visited = changed;
+        }
+        return runTargets(baseDir, sources, visited, consumer);
+    }
+
+    private int runTargets(Path baseDir, List<Path> sources, @Nullable Set<Path> targets, Consumer<FileChange> consumer) {
+        List<List<Path>> batches = parseBatches(baseDir, sources);
+        if (targets != null) {
+            // Only the modules with a target are parsed
+            batches = batches.stream()
+                    .filter(batch -> batch.stream().anyMatch(source -> targets.contains(absolute(source))))
+                    .collect(Collectors.toList());
+        }
+        ResultCache cache = options.getCacheDirectory() == null ? null
+                : new ResultCache(baseDir.resolve(options.getCacheDirectory()), recipeKey);
+        LstCache lstCache = options.getCacheDirectory() == null || !options.isCacheLsts() ? null
+                : new LstCache(baseDir.resolve(options.getCacheDirectory()), classpath());
+        AtomicInteger changeCount = new AtomicInteger();
+        Consumer<FileChange> sink = change -> {
+            synchronized (consumer) {
+                consumer.accept(change);
+            }
+            changeCount.incrementAndGet();
+        };
+        Failures failures = new Failures();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, options.getParallelism()));
+        try {
+            List<List<Path>> runBatches = batches;
+            pool.submit(() -> runBatches.parallelStream()
+                    .forEach(batch -> runBatch(baseDir, batch, targets, cache, lstCache, failures, sink))).get();
+            failures.throwIfAny(options.getRecipeName());
+            return changeCount.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + options.getRecipeName(), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to run " + options.getRecipeName(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Method to parse a batch of sources with a parser of its own and run the recipe over its files one at a
+     * time, passing every change to the sink as soon as it is made and skipping the sources found in the cache
+     * and, when targets are given, the sources that are not targets
+     */
+    private void runBatch(Path baseDir, List<Path> batch, @Nullable Set<Path> targets, @Nullable ResultCache cache,
+                          @Nullable LstCache lstCache, Failures failures, Consumer<FileChange> sink) {
+        if (prefilter != null) {
+            batch = batch.stream().filter(prefilter::matches).collect(Collectors.toList());
+        }
+        List<Path> toVisit = targets == null ? batch
+                : batch.stream().filter(source -> targets.contains(absolute(source))).collect(Collectors.toList());
+        Map<String, String> entryKeys = new HashMap<>();
+        if (cache != null) {
+            // The result of a source depends on the types of the sources it is parsed with, so its entry is keyed
+            // by the content of the whole batch as well
+            Map<Path, String> sourceKeys = new LinkedHashMap<>();
+            for (Path source : batch) {
+                sourceKeys.put(source, ResultCache.sourceKey(normalize(baseDir.relativize(source)), read(source)));
+            }
+            String batchKey = ResultCache.batchKey(sourceKeys.values());
+            List<Path> misses = new ArrayList<>();
+            for (Path source : toVisit) {
+                String sourcePath = normalize(baseDir.relativize(source));
+                String entryKey = ResultCache.entryKey(batchKey, sourceKeys.get(source));
+                ResultCache.Entry entry = cache.get(entryKey, sourcePath);
+                if (entry == null) {
+                    misses.add(source);
+                    entryKeys.put(sourcePath, entryKey);
+                } else if (entry.getChange() != null) {
+                    sink.accept(entry.getChange());
+                }
+            }
+            toVisit = misses;
+        }
+        if (toVisit.isEmpty()) {
+            return;
+        }
+
+        // The sources that are not visited, because they are in the result cache or are not targets, are still
+        // parsed with the batch, so that the visited sources are attributed with their types
+        SourceFile[] remaining = select(baseDir, lstCache != null ? parseOrLoad(baseDir, batch, lstCache, failures)
+                : parse(baseDir, batch, failures), toVisit).toArray(new SourceFile[0]);
+        IntStream files = IntStream.range(0, remaining.length);
+        // A thread waiting for the files of its batch may start another batch meanwhile, so the files of a batch
+        // are visited by its own thread when the heap is bounded and every thread holds the LSTs of one batch at most
+        if (options.getHeapBudget() == 0) {
+            files = files.parallel();
+        }
+        files.forEach(i -> {
+            SourceFile sourceFile = remaining[i];
+            // The LST is released once the change of its source file is passed on
+            remaining[i] = null;
+            migrate(sourceFile, entryKeys, cache, failures, sink);
+        });
+    }
+
+    /**
+     * Method to run the recipe over a single source file, passing its change to the sink and recording its
+     * result in the cache
+     */
+    private void migrate(SourceFile sourceFile, Map<String, String> entryKeys, @Nullable ResultCache cache,
+                         Failures failures, Consumer<FileChange> sink) {
+        String sourcePath = normalize(sourceFile.getSourcePath());
+        if (sourceFile instanceof ParseError) {
+            failures.addSource(sourcePath, "the parser");
+            return;
+        }
+        FileChange change = null;
+        for (Result result : runFile(sourceFile, sourcePath, failures)) {
+            change = FileChange.of(result);
+            sink.accept(change);
+        }
+        String entryKey = entryKeys.get(sourcePath);
+        // Files that failed to parse or to be visited are not cached, so that they are retried by the next run
+        if (cache == null || entryKey == null || failures.contains(sourcePath)) {
+            return;
+        }
+        if (change == null) {
+            cache.putUnchanged(entryKey);
+        } else {
+            cache.putChanged(entryKey, change);
+        }
+    }
+
+    /**
+     * Method to run the recipe over a single source file, recording its cycles as CycleEvents, and to
+     * drop the results of the source files the recipe raised an error on
+     */
+    private List<Result> runFile(SourceFile sourceFile, String sourcePath, Failures failures) {
+        RecipeRunContext ctx = new RecipeRunContext(recipe.getName(), sourcePath);
+        try {
+            RecipeRun run = recipe.run(new InMemoryLargeSourceSet(Collections.singletonList(sourceFile)), ctx);
+            Set<String> failed = new HashSet<>();
+            for (SourcesFileErrors.Row row : run.<SourcesFileErrors.Row>getDataTableRows(SourcesFileErrors.class.getName())) {
+                String failedPath = normalize(Paths.get(row.getSourcePath()));
+                failed.add(failedPath);
+                failures.addSource(failedPath, row.getRecipe());
+            }
+            failures.addErrors(ctx.getErrors());
+            return run.getChangeset().getAllResults().stream()
+                    .filter(result -> result.getBefore() == null || !failed.contains(normalize(result.getBefore().getSourcePath())))
+                    .collect(Collectors.toList());
+        } finally {
+            ctx.endCycle();
+        }
+    }
+
+    /**
+     * Method to load the LSTs of a batch from the cache, parsing and caching the whole batch on a miss
+     */
+    private List<SourceFile> parseOrLoad(Path baseDir, List<Path> batch, LstCache lstCache, Failures failures) {
+        String batchKey = lstCache.batchKey(baseDir, batch);
+        List<SourceFile> sourceFiles = lstCache.get(batchKey);
+        if (sourceFiles == null) {
+            sourceFiles = parse(baseDir, batch, failures);
+            lstCache.put(batchKey, sourceFiles);
+        }
+        return sourceFiles;
+    }
+
+    /**
+     * Method to keep the LSTs of the sources to visit
+     */
+    private static List<SourceFile> select(Path baseDir, List<SourceFile> parsed, List<Path> toVisit) {
+        if (parsed.size() == toVisit.size()) {
+            return parsed;
+        }
+        Set<String> sourcePaths = new HashSet<>();
+        for (Path source : toVisit) {
+            sourcePaths.add(normalize(baseDir.relativize(source)));
+        }
+        return parsed.stream()
+                .filter(sourceFile -> sourcePaths.contains(normalize(sourceFile.getSourcePath())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Method to parse a batch of sources, with a kept parser when reuseParsers is enabled
+     */
+    private List<SourceFile> parse(Path baseDir, List<Path> batch, Failures failures) {
+        JavaParser parser = options.isReuseParsers() ? idleParsers.poll() : null;
+        if (parser == null) {
+            parser = JavaParser.fromJavaVersion()
+                    .classpath(classpath())
+                    .logCompilationWarningsAndErrors(false)
+                    .build();
+        }
+        try {
+            return parser.parse(batch, baseDir, new InMemoryExecutionContext(failures::addError)).collect(Collectors.toList());
+        } finally {
+            if (options.isReuseParsers()) {
+                // The sources of the batch are dropped from the parser, so they can be parsed again by a later run
+                parser.reset();
+                idleParsers.offer(parser);
+            }
+        }
+    }
+
+    private Collection<Path> classpath() {
+        return options.getClasspath().isEmpty() ? JavaParser.runtimeClasspath() : options.getClasspath();
+    }
+
+    /**
+     * Method to group sources by module, splitting modules larger than the parse batch size
+     */
+    private List<List<Path>> parseBatches(Path baseDir, List<Path> sources) {
+        Map<Path, List<Path>> modules = modules(baseDir, sources);
+        long batchBudget = options.getHeapBudget() / Math.max(1, options.getParallelism());
+        List<List<Path>> batches = new ArrayList<>();
+        for (List<Path> module : modules.values()) {
+            batches.addAll(split(module, options.getParseBatchSize(), batchBudget));
+        }
+        return batches;
+    }
+
+    /**
+     * Method to group sources by module, the nearest directory with a pom.xml or build.gradle
+     * @param baseDir The root of the source tree, which is the module of sources outside of any module
+     * @param sources The sources to group
+     * @return The sources of every module, by module directory, in the order of the sources
+     */
+    static Map<Path, List<Path>> modules(Path baseDir, List<Path> sources) {
+        Map<Path, List<Path>> modules = new LinkedHashMap<>();
+        Map<Path, Path> moduleOfDirectory = new HashMap<>();
+        for (Path source : sources) {
+            modules.computeIfAbsent(module(baseDir, source.getParent(), moduleOfDirectory), module -> new ArrayList<>()).add(source);
+        }
+        return modules;
+    }
+
+    /**
+     * Method to split the sources of a module into batches
+     * @param module The sources of the module
+     * @param batchSize The most sources of a batch, or zero for no bound
+     * @param batchBudget The most heap the estimated LSTs of a batch may take, or zero for no bound; a source
+     * estimated larger than the budget is put in a batch of its own
+     * @return The batches, in the order of the sources
+     */
+    static List<List<Path>> split(List<Path> module, int batchSize, long batchBudget) {
+        List<List<Path>> batches = new ArrayList<>();
+        int start = 0;
+        long batchBytes = 0;
+        for (int i = 0; i < module.size(); i++) {
+            long lstBytes = batchBudget > 0 ? size(module.get(i)) * LST_BYTES_PER_SOURCE_BYTE : 0;
+            boolean full = (batchSize > 0 && i - start == batchSize) || (batchBudget > 0 && batchBytes + lstBytes > batchBudget);
+            if (i > start && full) {
+                batches.add(module.subList(start, i));
+                start = i;
+                batchBytes = 0;
+            }
+            batchBytes += lstBytes;
+        }
+        if (start < module.size()) {
+            batches.add(module.subList(start, module.size()));
+        }
+        return batches;
+    }
+
+    private static long size(Path source) {
+        try {
+            return Files.size(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + source, e);
+        }
+    }
+
+    /**
+     * Method to find the module directory of a source directory, caching the answer for every directory on the way
+     */
+    private static Path module(Path baseDir, Path directory, Map<Path, Path> moduleOfDirectory) {
+        if (directory == null || !directory.startsWith(baseDir) || directory.equals(baseDir)) {
+            return baseDir;
+        }
+        Path module = moduleOfDirectory.get(directory);
+        if (module == null) {
+            module = isModule(directory) ? directory : module(baseDir, directory.getParent(), moduleOfDirectory);
+            moduleOfDirectory.put(directory, module);
+        }
+        return module;
+    }
+
+    /**
+     * Method to find the Java sources under a directory, skipping build output and module-info.java
+     * @param baseDir The root of the source tree
+     * @return The Java sources, sorted by path
+     */
+    public static List<Path> findSources(Path baseDir) {
+        try (Stream<Path> files = Files.walk(baseDir)) {
+            return files.filter(path -> path.toString().endsWith(".java"))
+                    .filter(path -> !path.getFileName().toString().equals("module-info.java"))
+                    .filter(path -> !isExcluded(baseDir, path))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read sources from " + baseDir, e);
+        }
+    }
+
+    /**
+     * Method to check if a source is in the .git directory or in the build output directory of a module
+     */
+    private static boolean isExcluded(Path baseDir, Path source) {
+        Path directory = baseDir;
+        for (Path segment : baseDir.relativize(source.getParent())) {
+            String name = segment.toString();
+            if (name.equals(".git") || (BUILD_OUTPUT_DIRECTORIES.contains(name) && isModule(directory))) {
+                return true;
+            }
+            directory = directory.resolve(segment);
+        }
+        return false;
+    }
+
+    private static boolean isModule(Path directory) {
+        for (String moduleFile : MODULE_FILES) {
+            if (Files.isRegularFile(directory.resolve(moduleFile))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static byte[] read(Path source) {
+        try {
+            return Files.readAllBytes(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + source, e);
+        }
+    }
+
+    static Path absolute(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Method to format a source path with forward slashes, so that cache keys and results do not depend on the OS
+     */
+    static String normalize(Path sourcePath) {
+        return sourcePath.toString().replace('\\', '/');
+    }
+
+    /**
+     * The source files that failed to parse or to be visited during a run, and the errors raised
+     */
+    private static final class Failures {
+
+        /**
+         * The paths of the failed source files, with the parser or recipe that failed on them
+         */
+        private final Map<String, String> sources = new ConcurrentSkipListMap<>();
+
+        private final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        void addSource(String sourcePath, String failedBy) {
+            sources.putIfAbsent(sourcePath, failedBy);
+        }
+
+        void addError(Throwable error) {
+            errors.add(error);
+        }
+
+        void addErrors(Collection<Throwable> raised) {
+            errors.addAll(raised);
+        }
+
+        boolean contains(String sourcePath) {
+            return sources.containsKey(sourcePath);
+        }
+
+        /**
+         * Method to fail the run when an error was raised, with every error of the run as a suppressed exception
+         */
+        void throwIfAny(String recipeName) {
+            if (sources.isEmpty() && errors.isEmpty()) {
+                return;
+            }
+            StringBuilder message = new StringBuilder("Failed to run ").append(recipeName).append(" on ")
+                    .append(sources.size()).append(" source files");
+            sources.forEach((sourcePath, failedBy) -> message.append("\n  ").append(sourcePath).append(" (").append(failedBy).append(')'));
+            IllegalStateException failure = new IllegalStateException(message.toString());
+            errors.forEach(failure::addSuppressed);
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.azure.recipes.core.runner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * PatchWriter appends the diff of every change to a patch file as soon as it is received, so that a dry run
+ * does not keep the changes in memory until the end of the run.
+ * --------------------------------------------------
+ * Example:
+ * try (PatchWriter patch = new PatchWriter(Paths.get("target/rewrite/rewrite.patch"))) {
+ *     runner.run(baseDir, MigrationRunner.findSources(baseDir), patch);
+ * }
+ * --------------------------------------------------
+ */
+public final class PatchWriter implements Consumer<FileChange>, Closeable {
+
+    private final Writer writer;
+
+    /**
+     * Constructor for PatchWriter
+     * @param patchFile The patch file, which is replaced
+     * @throws IOException If the patch file can not be created
+     */
+    public PatchWriter(Path patchFile) throws IOException {
+        Path parent = patchFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(patchFile, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void accept(FileChange change) {
+        try {
+            writer.write(change.getDiff());
+            if (!change.getDiff().endsWith("\n")) {
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the patch of " + change.getSourcePath(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
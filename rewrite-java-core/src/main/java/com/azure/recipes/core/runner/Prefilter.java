@@ -0,0 +1,198 @@
+package com.azure.recipes.core.runner;
+
+import org.openrewrite.Recipe;
+import org.openrewrite.config.OptionDescriptor;
+import org.openrewrite.config.RecipeDescriptor;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Prefilter decides from the raw bytes of a source file whether the migration recipe can change it, so that
+ * files that can not be changed are neither parsed nor type-attributed.
+ * --------------------------------------------------
+ * A file passes when it contains one of the tokens of the recipe: the azure-core names matched by the
+ * recipes of com.azure.recipes.core.v2, the method names of every methodPattern option, and the old type
+ * and package names of ChangeType and ChangePackage. The bytes are scanned once for all tokens, using a
+ * table of the tokens by their first byte. Tokens are ASCII, so sources must use an ASCII-compatible
+ * encoding such as UTF-8.
+ * --------------------------------------------------
+ * OrderImports only reorders the imports of files changed by the migration, so it adds no token. A recipe
+ * tree containing any other recipe, or a method pattern with a wildcard name, has no prefilter.
+ */
+final class Prefilter {
+
+    /**
+     * The names matched by the recipes of com.azure.recipes.core.v2
+     */
+    static final List<String> AZURE_CORE_TOKENS = Collections.unmodifiableList(Arrays.asList(
+            "com.azure.core", "TypeReference", "RetryOptions", "HttpLogDetailLevel", "Context.NONE"));
+
+    private static final String RECIPE_PACKAGE = "com.azure.recipes.core.v2.";
+
+    private static final String DECLARATIVE_RECIPE_PACKAGE = "com.azure.rewrite.java.core.";
+
+    private static final List<String> PASSIVE_RECIPES = Collections.singletonList("org.openrewrite.java.OrderImports");
+
+    private static final List<String> TYPE_OPTIONS = Arrays.asList("oldFullyQualifiedTypeName", "oldPackageName");
+
+    /**
+     * Files larger than this are scanned through a memory-mapped buffer instead of being read into the heap
+     */
+    private static final long MAPPED_SIZE = 1024 * 1024;
+
+    private final List<String> tokens;
+
+    private final byte[][][] tokensByFirstByte = new byte[256][][];
+
+    private Prefilter(List<String> tokens) {
+        this.tokens = Collections.unmodifiableList(tokens);
+        List<List<byte[]>> byFirstByte = new ArrayList<>(Collections.nCopies(256, null));
+        for (String token : tokens) {
+            byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+            int first = bytes[0] & 0xFF;
+            if (byFirstByte.get(first) == null) {
+                byFirstByte.set(first, new ArrayList<>());
+            }
+            byFirstByte.get(first).add(bytes);
+        }
+        for (int i = 0; i < 256; i++) {
+            if (byFirstByte.get(i) != null) {
+                tokensByFirstByte[i] = byFirstByte.get(i).toArray(new byte[0][]);
+            }
+        }
+    }
+
+    /**
+     * Method to create the prefilter of a recipe
+     * @param recipe The recipe, before it is fused
+     * @return The prefilter, or null if the files the recipe can change can not be told from their tokens
+     */
+    @Nullable
+    static Prefilter of(Recipe recipe) {
+        Set<String> tokens = new LinkedHashSet<>(AZURE_CORE_TOKENS);
+        return addTokens(recipe.getDescriptor(), tokens) ? new Prefilter(new ArrayList<>(tokens)) : null;
+    }
+
+    private static boolean addTokens(RecipeDescriptor descriptor, Set<String> tokens) {
+        for (OptionDescriptor option : descriptor.getOptions()) {
+            if (option.getValue() == null) {
+                continue;
+            }
+            String value = option.getValue().toString().trim();
+            if (option.getName().equals("methodPattern")) {
+                String methodName = methodName(value);
+                if (methodName == null) {
+                    return false;
+                }
+                tokens.add(methodName);
+            } else if (TYPE_OPTIONS.contains(option.getName())) {
+                // The simple name also matches references from the same package, which need no import
+                tokens.add(value.substring(Math.max(value.lastIndexOf('.'), value.lastIndexOf('$')) + 1));
+            }
+        }
+        boolean known = descriptor.getName().startsWith(RECIPE_PACKAGE)
+                || descriptor.getName().startsWith(DECLARATIVE_RECIPE_PACKAGE)
+                || PASSIVE_RECIPES.contains(descriptor.getName())
+                || descriptor.getName().equals("org.openrewrite.java.ChangeMethodName")
+                || descriptor.getName().equals("org.openrewrite.java.ChangeType")
+                || descriptor.getName().equals("org.openrewrite.java.ChangePackage");
+        if (!known) {
+            return false;
+        }
+        for (RecipeDescriptor child : descriptor.getRecipeList()) {
+            if (!addTokens(child, tokens)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method to get the method name of a method pattern, e.g. toObject for com.azure.core.util.BinaryData toObject(..)
+     */
+    @Nullable
+    static String methodName(String methodPattern) {
+        int arguments = methodPattern.indexOf('(');
+        int start = methodPattern.lastIndexOf(' ', arguments < 0 ? methodPattern.length() : arguments);
+        String methodName = methodPattern.substring(start + 1, arguments < 0 ? methodPattern.length() : arguments).trim();
+        // A constructor pattern, e.g. com.azure.core.http.policy.RetryOptions <constructor>(..), names its type instead
+        if (methodName.equals("<constructor>") && start > 0) {
+            String type = methodPattern.substring(0, start).trim();
+            methodName = type.substring(type.lastIndexOf('.') + 1);
+        }
+        return methodName.isEmpty() || methodName.contains("*") || methodName.contains("..") ? null : methodName;
+    }
+
+    /**
+     * Method to get the tokens of the prefilter
+     * @return The tokens a source file must contain one of
+     */
+    List<String> getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Method to check if a source file contains one of the tokens
+     * @param source The source file
+     * @return True if the recipe can change the source file
+     */
+    boolean matches(Path source) {
+        try {
+            if (Files.size(source) <= MAPPED_SIZE) {
+                return matches(ByteBuffer.wrap(Files.readAllBytes(source)));
+            }
+            try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                return matches(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + source, e);
+        }
+    }
+
+    /**
+     * Method to check if the content of a source file contains one of the tokens
+     * @param content The content of the source file
+     * @return True if the recipe can change the source file
+     */
+    boolean matches(ByteBuffer content) {
+        int limit = content.limit();
+        for (int i = content.position(); i < limit; i++) {
+            byte[][] candidates = tokensByFirstByte[content.get(i) & 0xFF];
+            if (candidates == null) {
+                continue;
+            }
+            for (byte[] token : candidates) {
+                if (startsWith(content, i, limit, token)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(ByteBuffer content, int offset, int limit, byte[] token) {
+        if (offset + token.length > limit) {
+            return false;
+        }
+        for (int j = 1; j < token.length; j++) {
+            if (content.get(offset + j) != token[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package com.azure.recipes.core.runner;
+
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RecipeRunContext is the execution context of a recipe run over a single source file. It emits a Java
+ * Flight Recorder CycleEvent for every cycle of the run, so that a migration recorded with
+ * -XX:StartFlightRecording shows the cycles next to the recipe visits and template applications.
+ * --------------------------------------------------
+ * A cycle begins when the recipe scheduler puts it in the context, and ends when the next one begins or when
+ * endCycle is called after the run. The project is compiled for Java 8, where jdk.jfr only exists from 8u262,
+ * so events are only created when jdk.jfr is present and a recording has them enabled.
+ * --------------------------------------------------
+ * Errors raised while the recipe runs are collected instead of printed, so that the runner can report them.
+ */
+final class RecipeRunContext extends InMemoryExecutionContext {
+
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+    private final String recipe;
+
+    private final String sourcePath;
+
+    private final List<Throwable> errors;
+
+    /**
+     * The CycleEvent of the running cycle, held as an Object so that the runner loads without jdk.jfr
+     */
+    @Nullable
+    private Object cycle;
+
+    private int cycleNumber;
+
+    /**
+     * Constructor for RecipeRunContext
+     * @param recipe The name of the recipe run
+     * @param sourcePath The path of the source file, relative to the base directory
+     */
+    RecipeRunContext(String recipe, String sourcePath) {
+        this(recipe, sourcePath, Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    private RecipeRunContext(String recipe, String sourcePath, List<Throwable> errors) {
+        super(errors::add);
+        this.recipe = recipe;
+        this.sourcePath = sourcePath;
+        this.errors = errors;
+    }
+
+    /**
+     * Method to get the errors raised while the recipe ran
+     * @return The errors, in the order they were raised
+     */
+    List<Throwable> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    @Override
+    public void putMessage(String key, @Nullable Object value) {
+        super.putMessage(key, value);
+        if (JFR_AVAILABLE && CURRENT_CYCLE.equals(key)) {
+            endCycle();
+            CycleEvent event = new CycleEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                cycle = event;
+                cycleNumber = getCycle();
+            }
+        }
+    }
+
+    /**
+     * Method to end and commit the CycleEvent of the running cycle, if any
+     */
+    void endCycle() {
+        if (cycle == null) {
+            return;
+        }
+        CycleEvent event = (CycleEvent) cycle;
+        cycle = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.recipe = recipe;
+            event.sourcePath = sourcePath;
+            event.cycle = cycleNumber;
+            event.commit();
+        }
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, RecipeRunContext.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
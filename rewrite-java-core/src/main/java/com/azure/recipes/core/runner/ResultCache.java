@@ -0,0 +1,302 @@
+package com.azure.recipes.core.runner;
+
+import lombok.Value;
+import org.openrewrite.Recipe;
+import org.openrewrite.config.OptionDescriptor;
+import org.openrewrite.config.RecipeDescriptor;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ResultCache persists, per source file, whether a recipe changed it and the resulting change, so that
+ * a later run with the same recipes can skip files whose content has not changed.
+ * --------------------------------------------------
+ * Entries are keyed by the SHA-256 of the source path and content and of the paths and contents of every
+ * source of its parse batch, and stored under a directory named after the recipe key. A source file is
+ * attributed with the types of the other sources of its module, e.g. a helper method returning an azure-core
+ * type, so changing any source of a batch migrates every source of the batch again. The recipe key is the SHA-256 of the recipe tree with every option value, e.g.
+ * the catchTemplateString of AddTryCatchToMethodCallRecipe, of the version of the recipe jar, of the
+ * classpath entries with their size and modification time, and of the runner options that change which
+ * types a source file is attributed with or how its change is reported: fused, prefilter, sinceRef and
+ * the parse batching. Changing rewrite.yml, the classpath or these options, or upgrading the recipes,
+ * therefore starts a new, empty cache.
+ * --------------------------------------------------
+ * Outside a released jar the version is not known, so delete the cache after changing the recipe code.
+ */
+final class ResultCache {
+
+    private static final byte UNCHANGED = 0;
+
+    private static final byte CHANGED = 1;
+
+    private final Path directory;
+
+    /**
+     * Constructor for ResultCache
+     * @param cacheRoot The root directory of the cache, e.g. target/rewrite-cache
+     * @param recipeKey The key of the recipes whose results are cached
+     */
+    ResultCache(Path cacheRoot, String recipeKey) {
+        this.directory = cacheRoot.resolve(recipeKey.substring(0, 16));
+    }
+
+    /**
+     * Method to look up the cached result of a source file
+     * @param entryKey The key of the entry, from entryKey
+     * @param sourcePath The path of the source file, relative to the base directory of the run
+     * @return The cached entry, or null if the source file is not in the cache
+     */
+    @Nullable
+    Entry get(String entryKey, String sourcePath) {
+        byte[] entry;
+        try {
+            entry = Files.readAllBytes(entryPath(entryKey));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // An unreadable entry is treated as missing and is overwritten by this run
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry))) {
+            if (in.readByte() == UNCHANGED) {
+                return new Entry(null);
+            }
+            String diff = readString(in);
+            String after = in.readBoolean() ? readString(in) : null;
+            List<String> recipes = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                recipes.add(readString(in));
+            }
+            return new Entry(new FileChange(sourcePath, diff, after, recipes, true));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Method to record that the recipes made no change to a source file
+     */
+    void putUnchanged(String entryKey) {
+        write(entryKey, new byte[] {UNCHANGED});
+    }
+
+    /**
+     * Method to record the change the recipes made to a source file
+     */
+    void putChanged(String entryKey, FileChange change) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(CHANGED);
+            writeString(out, change.getDiff());
+            out.writeBoolean(change.getAfter() != null);
+            if (change.getAfter() != null) {
+                writeString(out, change.getAfter());
+            }
+            out.writeInt(change.getRecipes().size());
+            for (String recipe : change.getRecipes()) {
+                writeString(out, recipe);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        write(entryKey, bytes.toByteArray());
+    }
+
+    private void write(String entryKey, byte[] entry) {
+        Path path = entryPath(entryKey);
+        try {
+            Files.createDirectories(path.getParent());
+            // Write to a temporary file first so that concurrent runs never read a partial entry
+            Path temporary = Files.createTempFile(path.getParent(), entryKey, ".tmp");
+            Files.write(temporary, entry);
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the result cache entry " + path, e);
+        }
+    }
+
+    private Path entryPath(String entryKey) {
+        return directory.resolve(entryKey.substring(0, 2)).resolve(entryKey);
+    }
+
+    /**
+     * Method to compute the key of a source file from its path and content
+     * @param sourcePath The path of the source file, relative to the base directory of the run
+     * @param content The content of the source file
+     * @return The key of the source file
+     */
+    static String sourceKey(String sourcePath, byte[] content) {
+        MessageDigest digest = sha256();
+        digest.update(sourcePath.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(content);
+        return hex(digest.digest());
+    }
+
+    /**
+     * Method to compute the key of a parse batch from the keys of its sources
+     * @param sourceKeys The keys of the sources of the batch, from sourceKey, in the order they are parsed
+     * @return The key of the batch
+     */
+    static String batchKey(Collection<String> sourceKeys) {
+        MessageDigest digest = sha256();
+        for (String sourceKey : sourceKeys) {
+            digest.update(sourceKey.getBytes(StandardCharsets.UTF_8));
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * Method to compute the key of a cache entry, for a source file parsed with the sources of a batch
+     * @param batchKey The key of the batch the source file is parsed with, from batchKey
+     * @param sourceKey The key of the source file, from sourceKey
+     * @return The key of the entry
+     */
+    static String entryKey(String batchKey, String sourceKey) {
+        MessageDigest digest = sha256();
+        digest.update(batchKey.getBytes(StandardCharsets.UTF_8));
+        digest.update(sourceKey.getBytes(StandardCharsets.UTF_8));
+        return hex(digest.digest());
+    }
+
+    /**
+     * Method to compute the key of a recipe run from the options of the recipe, the options of the recipes it
+     * contains, the version of the recipe jar, the classpath and the runner options the results depend on
+     * @param recipe The recipe
+     * @param options The runner options
+     * @param classpath The classpath the sources are parsed with
+     * @return The key of the recipe run
+     */
+    static String recipeKey(Recipe recipe, RunnerOptions options, Collection<Path> classpath) {
+        StringBuilder description = new StringBuilder(codeVersion(ResultCache.class));
+        describe(recipe.getDescriptor(), description);
+        description.append("\nfused=").append(options.isFused())
+                .append(" prefilter=").append(options.isPrefilter())
+                .append(" sinceRef=").append(options.getSinceRef() != null)
+                .append(" parseBatchSize=").append(options.getParseBatchSize())
+                .append(" batchBudget=").append(options.getHeapBudget() / Math.max(1, options.getParallelism()));
+        describeClasspath(classpath, description);
+        return hex(sha256().digest(description.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Method to describe the entries of a classpath, with the size and modification time of every jar
+     * @param classpath The classpath
+     * @param description The description to append to
+     */
+    static void describeClasspath(Collection<Path> classpath, StringBuilder description) {
+        for (Path entry : classpath) {
+            description.append('\n').append(entry);
+            try {
+                if (Files.isRegularFile(entry)) {
+                    description.append(' ').append(Files.size(entry))
+                            .append(' ').append(Files.getLastModifiedTime(entry).toMillis());
+                }
+            } catch (IOException e) {
+                // The path alone identifies the entry
+            }
+        }
+    }
+
+    private static void describe(RecipeDescriptor descriptor, StringBuilder description) {
+        description.append('\n').append(descriptor.getName());
+        for (OptionDescriptor option : descriptor.getOptions()) {
+            description.append(' ').append(option.getName()).append('=').append(option.getValue());
+        }
+        description.append(" {");
+        for (RecipeDescriptor child : descriptor.getRecipeList()) {
+            describe(child, description);
+        }
+        description.append('}');
+    }
+
+    /**
+     * Method to describe the version of the jar a class is loaded from, using the size and modification time
+     * of the jar when it has no implementation version
+     * @param type A class of the jar
+     * @return The version of the jar
+     */
+    static String codeVersion(Class<?> type) {
+        Package typePackage = type.getPackage();
+        String version = typePackage == null ? null : typePackage.getImplementationVersion();
+        StringBuilder codeVersion = new StringBuilder(version == null ? "dev" : version);
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource != null) {
+            try {
+                Path location = Paths.get(codeSource.getLocation().toURI());
+                if (Files.isRegularFile(location)) {
+                    codeVersion.append(' ').append(Files.size(location))
+                            .append(' ').append(Files.getLastModifiedTime(location).toMillis());
+                }
+            } catch (URISyntaxException | IOException | IllegalArgumentException e) {
+                // The version alone identifies the jar
+            }
+        }
+        return codeVersion.toString();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Entry is the cached result of one source file
+     */
+    @Value
+    static class Entry {
+
+        /**
+         * The change the recipes made to the source file, or null if they made no change
+         */
+        @Nullable
+        FileChange change;
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.azure.recipes.core.runner;
+
+import lombok.Builder;
+import lombok.Value;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RunnerOptions configures a MigrationRunner.
+ * --------------------------------------------------
+ * Example:
+ * RunnerOptions options = RunnerOptions.builder()
+ *         .parallelism(32)
+ *         .classpath(moduleClasspath)
+ *         .build();
+ * --------------------------------------------------
+ */
+@Value
+@Builder(toBuilder = true)
+public class RunnerOptions {
+
+    public static final String DEFAULT_RECIPE = "com.azure.rewrite.java.core.MigrateAzureCoreSamplesToAzureCoreV2";
+
+    public static final String DEFAULT_CACHE_DIRECTORY = "target/rewrite-cache";
+
+    /**
+     * The name of the recipe to run, which is looked up on the runtime classpath. A comma separated list of
+     * recipe names, e.g. com.azure.recipes.core.v2.ContextRecipe,com.azure.recipes.core.v2.ResponseRecipe,
+     * runs those recipes only, in the order given.
+     */
+    @Builder.Default
+    String recipeName = DEFAULT_RECIPE;
+
+    /**
+     * When enabled, the recipe is run through FusedRecipe so that fusible visitors share one traversal
+     */
+    @Builder.Default
+    boolean fused = true;
+
+    /**
+     * The number of threads used to parse source files and run the recipe
+     */
+    @Builder.Default
+    int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The maximum number of source files of one module parsed together. Files of a module parsed in
+     * different batches only see each other's types through the classpath, so the module's compiled
+     * classes should be on it when this is set. Zero parses every module in one batch.
+     */
+    @Builder.Default
+    int parseBatchSize = 0;
+
+    /**
+     * The heap, in bytes, that the LSTs of the parse batches migrated at the same time may take, e.g. half of
+     * Runtime.maxMemory(). When set, modules are split into batches whose estimated LSTs fit in
+     * heapBudget / parallelism, with at most parseBatchSize files when that is set too. Like with parseBatchSize,
+     * the module's compiled classes should then be on the classpath. Zero does not bound the batches by size.
+     */
+    @Builder.Default
+    long heapBudget = 0;
+
+    /**
+     * When enabled, the parsers of the runner are reset and kept after every parse batch instead of being built for
+     * every batch, so that the classpath they read stays loaded for the next batches and runs of a long-lived runner.
+     * The type cache of a kept parser grows with the types of every batch it parses.
+     */
+    @Builder.Default
+    boolean reuseParsers = false;
+
+    /**
+     * The classpath used for type attribution. When empty, the runtime classpath is used.
+     */
+    @Builder.Default
+    List<Path> classpath = Collections.emptyList();
+
+    /**
+     * The directory of the result cache, resolved against the base directory of the run when relative,
+     * e.g. DEFAULT_CACHE_DIRECTORY. Source files that are in the cache for the same recipes and the same
+     * sources of their module are not visited again. When null, no cache is used.
+     */
+    @Nullable
+    Path cacheDirectory;
+
+    /**
+     * When enabled, the parsed LSTs of every parse batch are also kept in the cache directory, in Smile
+     * format, and loaded instead of parsing a batch whose sources and classpath have not changed
+     */
+    @Builder.Default
+    boolean cacheLsts = false;
+
+    /**
+     * When enabled, source files whose bytes do not contain any azure-core name or method name of the recipe
+     * are not parsed. Like with parseBatchSize, the other files of their module then only see their types
+     * through the classpath, so the module's compiled classes should be on it.
+     */
+    @Builder.Default
+    boolean prefilter = false;
+
+    /**
+     * The git ref, e.g. origin/main, to migrate only the Java sources changed since. The other sources of the
+     * modules with a change are still parsed, so that the changed sources are attributed with their types.
+     * When null, every source is migrated. A ref starting with a dash is rejected, as git would read it as
+     * an option.
+     */
+    @Nullable
+    String sinceRef;
+}
@@ -0,0 +1,95 @@
+package com.azure.recipes.core.runner;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * SarifReport writes a SARIF 2.1.0 log with one result per hunk of every change. Results are written as soon
+ * as the change is received, and the log is completed when the report is closed.
+ * --------------------------------------------------
+ * The rule of a result is the recipe that made the change, and its region is the line range of the hunk in
+ * the source file before the change.
+ * --------------------------------------------------
+ */
+public final class SarifReport implements Consumer<FileChange>, Closeable {
+
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+    private static final String TOOL_NAME = "rewrite-java-core";
+
+    private final JsonGenerator generator;
+
+    /**
+     * Constructor for SarifReport
+     * @param reportFile The report file, which is replaced
+     * @throws IOException If the report file can not be created
+     */
+    public SarifReport(Path reportFile) throws IOException {
+        Path parent = reportFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.generator = new JsonFactory().createGenerator(reportFile.toFile(), JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeStringField("$schema", SCHEMA);
+        generator.writeStringField("version", "2.1.0");
+        generator.writeArrayFieldStart("runs");
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("tool");
+        generator.writeObjectFieldStart("driver");
+        generator.writeStringField("name", TOOL_NAME);
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("results");
+        generator.flush();
+    }
+
+    @Override
+    public synchronized void accept(FileChange change) {
+        String ruleId = change.getRecipes().isEmpty() ? TOOL_NAME : change.getRecipes().get(0);
+        try {
+            for (LineRange lineRange : change.lineRanges()) {
+                generator.writeStartObject();
+                generator.writeStringField("ruleId", ruleId);
+                generator.writeStringField("level", "note");
+                generator.writeObjectFieldStart("message");
+                generator.writeStringField("text", "Migrated by " + String.join(", ", change.getRecipes()));
+                generator.writeEndObject();
+                generator.writeArrayFieldStart("locations");
+                generator.writeStartObject();
+                generator.writeObjectFieldStart("physicalLocation");
+                generator.writeObjectFieldStart("artifactLocation");
+                generator.writeStringField("uri", change.getSourcePath());
+                generator.writeEndObject();
+                generator.writeObjectFieldStart("region");
+                generator.writeNumberField("startLine", lineRange.getStartLine());
+                generator.writeNumberField("endLine", lineRange.getEndLine());
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to report the change of " + change.getSourcePath(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+    }
+}
@@ -0,0 +1,155 @@
+package com.azure.recipes.core.runner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * ShardWorker is the main class of the worker JVMs started by a ShardedMigration. A worker migrates the sources
+ * of one shard with a MigrationRunner and streams their diffs to a partial patch.
+ * --------------------------------------------------
+ * Usage:
+ * java -cp (classpath of the coordinator) com.azure.recipes.core.runner.ShardWorker (shard properties file)
+ * --------------------------------------------------
+ * The properties file, written by ShardedMigration, holds the base directory, the file listing the sources of
+ * the shard, the partial patch to write and the RunnerOptions of the run. The worker exits with 0 once the
+ * patch is written, and with 1 after printing the error otherwise.
+ */
+public final class ShardWorker {
+
+    private static final String BASE_DIR = "baseDir";
+    private static final String SOURCES = "sources";
+    private static final String PATCH = "patch";
+    private static final String RECIPE_NAME = "recipeName";
+    private static final String FUSED = "fused";
+    private static final String PARALLELISM = "parallelism";
+    private static final String PARSE_BATCH_SIZE = "parseBatchSize";
+    private static final String HEAP_BUDGET = "heapBudget";
+    private static final String REUSE_PARSERS = "reuseParsers";
+    private static final String CLASSPATH = "classpath";
+    private static final String CACHE_DIRECTORY = "cacheDirectory";
+    private static final String CACHE_LSTS = "cacheLsts";
+    private static final String PREFILTER = "prefilter";
+    private static final String SINCE_REF = "sinceRef";
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Method to run a worker
+     * @param args The path of the shard properties file
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: ShardWorker <shard properties file>");
+            System.exit(2);
+        }
+        try {
+            run(Paths.get(args[0]));
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Method to migrate the sources of a shard
+     * @param shardFile The shard properties file
+     * @return The number of changed source files
+     * @throws IOException If the shard can not be read or the patch can not be written
+     */
+    static int run(Path shardFile) throws IOException {
+        Properties shard = new Properties();
+        try (Reader reader = Files.newBufferedReader(shardFile, StandardCharsets.UTF_8)) {
+            shard.load(reader);
+        }
+        List<Path> sources = new ArrayList<>();
+        for (String source : Files.readAllLines(Paths.get(shard.getProperty(SOURCES)), StandardCharsets.UTF_8)) {
+            sources.add(Paths.get(source));
+        }
+        try (PatchWriter patch = new PatchWriter(Paths.get(shard.getProperty(PATCH)))) {
+            return new MigrationRunner(options(shard)).run(Paths.get(shard.getProperty(BASE_DIR)), sources, patch);
+        }
+    }
+
+    /**
+     * Method to write the properties file of a shard
+     * @param shardFile The properties file to write
+     * @param options The options of the worker
+     * @param baseDir The directory source paths are made relative to
+     * @param sources The sources of the shard
+     * @param patch The partial patch the worker writes
+     * @throws IOException If the files can not be written
+     */
+    static void write(Path shardFile, RunnerOptions options, Path baseDir, List<Path> sources, Path patch) throws IOException {
+        Path sourcesFile = shardFile.resolveSibling(shardFile.getFileName() + ".sources");
+        List<String> sourceLines = new ArrayList<>();
+        for (Path source : sources) {
+            sourceLines.add(source.toAbsolutePath().toString());
+        }
+        Files.write(sourcesFile, sourceLines, StandardCharsets.UTF_8);
+
+        Properties shard = new Properties();
+        shard.setProperty(BASE_DIR, baseDir.toAbsolutePath().toString());
+        shard.setProperty(SOURCES, sourcesFile.toAbsolutePath().toString());
+        shard.setProperty(PATCH, patch.toAbsolutePath().toString());
+        shard.setProperty(RECIPE_NAME, options.getRecipeName());
+        shard.setProperty(FUSED, Boolean.toString(options.isFused()));
+        shard.setProperty(PARALLELISM, Integer.toString(options.getParallelism()));
+        shard.setProperty(PARSE_BATCH_SIZE, Integer.toString(options.getParseBatchSize()));
+        shard.setProperty(HEAP_BUDGET, Long.toString(options.getHeapBudget()));
+        shard.setProperty(REUSE_PARSERS, Boolean.toString(options.isReuseParsers()));
+        List<String> classpath = new ArrayList<>();
+        for (Path entry : options.getClasspath()) {
+            classpath.add(entry.toAbsolutePath().toString());
+        }
+        shard.setProperty(CLASSPATH, String.join(File.pathSeparator, classpath));
+        if (options.getCacheDirectory() != null) {
+            // Relative cache directories are resolved against the base directory, so every worker shares the cache
+            shard.setProperty(CACHE_DIRECTORY, options.getCacheDirectory().toString());
+        }
+        shard.setProperty(CACHE_LSTS, Boolean.toString(options.isCacheLsts()));
+        shard.setProperty(PREFILTER, Boolean.toString(options.isPrefilter()));
+        if (options.getSinceRef() != null) {
+            shard.setProperty(SINCE_REF, options.getSinceRef());
+        }
+        try (Writer writer = Files.newBufferedWriter(shardFile, StandardCharsets.UTF_8)) {
+            shard.store(writer, "Shard of a ShardedMigration");
+        }
+    }
+
+    /**
+     * Method to read the RunnerOptions of a shard
+     */
+    private static RunnerOptions options(Properties shard) {
+        List<Path> classpath = new ArrayList<>();
+        for (String entry : shard.getProperty(CLASSPATH, "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                classpath.add(Paths.get(entry));
+            }
+        }
+        String cacheDirectory = shard.getProperty(CACHE_DIRECTORY);
+        return RunnerOptions.builder()
+                .recipeName(shard.getProperty(RECIPE_NAME))
+                .fused(Boolean.parseBoolean(shard.getProperty(FUSED)))
+                .parallelism(Integer.parseInt(shard.getProperty(PARALLELISM)))
+                .parseBatchSize(Integer.parseInt(shard.getProperty(PARSE_BATCH_SIZE)))
+                .heapBudget(Long.parseLong(shard.getProperty(HEAP_BUDGET)))
+                .reuseParsers(Boolean.parseBoolean(shard.getProperty(REUSE_PARSERS)))
+                .classpath(classpath)
+                .cacheDirectory(cacheDirectory == null ? null : Paths.get(cacheDirectory))
+                .cacheLsts(Boolean.parseBoolean(shard.getProperty(CACHE_LSTS)))
+                .prefilter(Boolean.parseBoolean(shard.getProperty(PREFILTER)))
+                .sinceRef(shard.getProperty(SINCE_REF))
+                .build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.azure.recipes.core.runner;
+
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ShardedMigration migrates a source tree too large for one JVM by splitting its sources into shards that are
+ * migrated by worker JVMs on the same machine, and merging the partial patches of the workers into one patch.
+ * --------------------------------------------------
+ * Sources are sharded by module, the nearest directory with a pom.xml or build.gradle, so that the sources of a
+ * module are parsed together, and a module goes to the shard given by the hash of its path, so that it goes to
+ * the same shard in every run. Every worker runs a MigrationRunner with the same RunnerOptions, splitting the
+ * parallelism and the heapBudget between the workers, so the heapBudget is of all the workers together. The
+ * result and LST caches of the cache directory, and the clientcore jar extracted by the recipes, are shared by
+ * the workers on disk.
+ * --------------------------------------------------
+ * The merged patch holds the diff of every changed source sorted by path, so it does not depend on the number
+ * of workers or the order in which they finish. A scanning recipe would only see the sources of its shard, so
+ * recipes containing one are rejected.
+ * --------------------------------------------------
+ * Example:
+ * int changed = new ShardedMigration(options, 4, Collections.singletonList("-Xmx4g"))
+ *         .run(Paths.get("path/to/repo"), Paths.get("target/rewrite/rewrite.patch"));
+ * --------------------------------------------------
+ */
+public final class ShardedMigration {
+
+    private static final String DIFF_HEADER = "diff --git ";
+
+    private final RunnerOptions options;
+
+    private final int workers;
+
+    private final List<String> jvmArguments;
+
+    /**
+     * Constructor for ShardedMigration
+     * @param options The options of the run, with the parallelism and the heapBudget of the whole machine
+     * @param workers The number of worker JVMs
+     * @param jvmArguments The arguments of the worker JVMs, e.g. -Xmx4g
+     */
+    public ShardedMigration(RunnerOptions options, int workers, List<String> jvmArguments) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is needed, got " + workers);
+        }
+        checkShardable(MigrationRunner.activate(options.getRecipeName()));
+        this.options = options;
+        this.workers = workers;
+        this.jvmArguments = Collections.unmodifiableList(new ArrayList<>(jvmArguments));
+    }
+
+    /**
+     * Method to migrate every Java source under a directory and write the merged patch
+     * @param baseDir The root of the source tree
+     * @param patchFile The merged patch, which is replaced
+     * @return The number of changed source files
+     * @throws IOException If the shards or the patch can not be written
+     */
+    public int run(Path baseDir, Path patchFile) throws IOException {
+        List<List<Path>> shards = shard(baseDir, MigrationRunner.findSources(baseDir), workers);
+        RunnerOptions workerOptions = options.toBuilder()
+                .parallelism(Math.max(1, options.getParallelism() / workers))
+                .heapBudget(options.getHeapBudget() / workers)
+                .build();
+        Path workDirectory = Files.createTempDirectory("rewrite-shards");
+        List<Process> processes = new ArrayList<>();
+        try {
+            List<Path> patches = new ArrayList<>();
+            List<Path> logs = new ArrayList<>();
+            for (int i = 0; i < shards.size(); i++) {
+                if (shards.get(i).isEmpty()) {
+                    continue;
+                }
+                Path shardFile = workDirectory.resolve("shard-" + i + ".properties");
+                Path patch = workDirectory.resolve("shard-" + i + ".patch");
+                Path log = workDirectory.resolve("shard-" + i + ".log");
+                ShardWorker.write(shardFile, workerOptions, baseDir, shards.get(i), patch);
+                processes.add(startWorker(shardFile, log));
+                patches.add(patch);
+                logs.add(log);
+            }
+            for (int i = 0; i < processes.size(); i++) {
+                int exitCode = processes.get(i).waitFor();
+                if (exitCode != 0) {
+                    throw new IllegalStateException("The worker of " + patches.get(i).getFileName() + " failed with exit code "
+                            + exitCode + ":\n" + new String(Files.readAllBytes(logs.get(i)), StandardCharsets.UTF_8));
+                }
+            }
+            return merge(patches, patchFile);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the workers", e);
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+            delete(workDirectory);
+        }
+    }
+
+    /**
+     * Method to split sources into shards by the hash of the path of their module
+     * @param baseDir The root of the source tree
+     * @param sources The sources to split
+     * @param shardCount The number of shards
+     * @return The sources of every shard, some of which may be empty
+     */
+    static List<List<Path>> shard(Path baseDir, List<Path> sources, int shardCount) {
+        List<List<Path>> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (Map.Entry<Path, List<Path>> module : MigrationRunner.modules(baseDir, sources).entrySet()) {
+            // String.hashCode is the same in every JVM, so a module stays in its shard between runs
+            int shard = Math.floorMod(MigrationRunner.normalize(baseDir.relativize(module.getKey())).hashCode(), shardCount);
+            shards.get(shard).addAll(module.getValue());
+        }
+        return shards;
+    }
+
+    /**
+     * Method to merge partial patches into one patch, with the diffs sorted by path
+     * @param patches The partial patches
+     * @param patchFile The merged patch, which is replaced
+     * @return The number of diffs in the merged patch
+     * @throws IOException If a patch can not be read or written
+     */
+    static int merge(List<Path> patches, Path patchFile) throws IOException {
+        // The diffs are keyed by their header, diff --git a/path b/path, so they are sorted by path
+        Map<String, String> diffs = new TreeMap<>();
+        for (Path patch : patches) {
+            String content = new String(Files.readAllBytes(patch), StandardCharsets.UTF_8);
+            int start = 0;
+            while (start < content.length()) {
+                int next = content.indexOf("\n" + DIFF_HEADER, start);
+                int end = next < 0 ? content.length() : next + 1;
+                String diff = content.substring(start, end);
+                int headerEnd = diff.indexOf('\n');
+                diffs.put(headerEnd < 0 ? diff : diff.substring(0, headerEnd), diff);
+                start = end;
+            }
+        }
+        Path parent = patchFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(patchFile, StandardCharsets.UTF_8)) {
+            for (String diff : diffs.values()) {
+                writer.write(diff);
+            }
+        }
+        return diffs.size();
+    }
+
+    private Process startWorker(Path shardFile, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArguments);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        command.add(shardFile.toString());
+        // The output goes to a file, so that a full pipe never blocks a worker
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void checkShardable(Recipe recipe) {
+        if (recipe instanceof ScanningRecipe) {
+            throw new IllegalArgumentException(recipe.getName()
+                    + " is a scanning recipe, which would only see the sources of its shard");
+        }
+        for (Recipe child : recipe.getRecipeList()) {
+            checkShardable(child);
+        }
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                file.toFile().delete();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // The work directory is a temporary directory, so whatever can not be deleted is left to the system
+        }
+    }
+}
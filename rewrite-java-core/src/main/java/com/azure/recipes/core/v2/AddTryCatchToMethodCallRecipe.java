@@ -10,6 +10,8 @@ import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.marker.SearchResult;
 
 import lombok.EqualsAndHashCode;
 import lombok.Value;
@@ -19,8 +21,12 @@ import org.openrewrite.java.tree.MethodCall;
 import org.openrewrite.java.tree.Statement;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
@@ -39,6 +45,12 @@ import java.util.regex.Pattern;
 @EqualsAndHashCode(callSuper = false)
 public class AddTryCatchToMethodCallRecipe extends Recipe {
 
+    /**
+     * Compiled try-catch templates keyed by catch template and exception name, so each distinct
+     * configuration is only compiled once.
+     */
+    private static final Map<String, JavaTemplate> TRY_CATCH_TEMPLATES = new ConcurrentHashMap<>();
+
     @Option(displayName = "Method pattern",
             description = "A method pattern used to find matching method declaration.",
             example = "*..* hello(..)")
@@ -63,6 +75,8 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
     @NonNull
     String fullyQualifiedExceptionName;
 
+    transient RecipeMetrics metrics = new RecipeMetrics(this);
+
     /**
      * All recipes must be serializable. This is verified by RewriteTest.rewriteRun() in your tests.
      * Json creator allows your recipes to be used from a yaml file.
@@ -90,13 +104,89 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
     }
 
     /**
-     * Method to return the visitor that performs the checks and changes
+     * Method to return the visitor that performs the checks and changes.
+     * Only files that call the target method are visited. When the owner is excluded, calls are found
+     * by method name so that code which cannot be type attributed is still visited.
      *
      * @return Returns the visitor that performs the checks and changes
      */
     @Override
     public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AddTryCatchVisitor();
+        TreeVisitor<?, ExecutionContext> precondition = excludeOwner
+                ? new UsesMethodName(methodName())
+                : new UsesMethod<>(methodPattern, true);
+        AddTryCatchVisitor visitor = new AddTryCatchVisitor();
+        return metrics.measure(Preconditions.check(precondition, visitor), visitor.recorder);
+    }
+
+    /**
+     * Method to extract the method name from the method pattern
+     *
+     * @return The method name of the method pattern
+     */
+    private String methodName() {
+        return methodPattern.replaceAll("\\(.*?\\)", "").replaceAll("\\*", "").trim().split(" ")[1];
+    }
+
+    /**
+     * Precondition visitor that marks files containing a call with the given method name, regardless of
+     * the owner or whether the call could be type attributed.
+     */
+    private static class UsesMethodName extends JavaIsoVisitor<ExecutionContext> {
+
+        private final String methodName;
+
+        UsesMethodName(String methodName) {
+            this.methodName = methodName;
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext context) {
+            J.MethodInvocation m = super.visitMethodInvocation(method, context);
+            return hasMethodName(m, methodName) ? SearchResult.found(m) : m;
+        }
+
+        @Override
+        public J.MemberReference visitMemberReference(J.MemberReference memberRef, ExecutionContext context) {
+            J.MemberReference m = super.visitMemberReference(memberRef, context);
+            return hasMethodName(m, methodName) ? SearchResult.found(m) : m;
+        }
+
+        @Override
+        public J.NewClass visitNewClass(J.NewClass newClass, ExecutionContext context) {
+            J.NewClass n = super.visitNewClass(newClass, context);
+            return hasMethodName(n, methodName) ? SearchResult.found(n) : n;
+        }
+    }
+
+    /**
+     * Method to check the name of a method call without printing it. Constructor calls are
+     * matched by the simple name of the class.
+     *
+     * @param methodCall The method call to check
+     * @param methodName The method name to look for
+     * @return True if the method call has the given name
+     */
+    private static boolean hasMethodName(MethodCall methodCall, String methodName) {
+        if (methodCall instanceof J.MethodInvocation) {
+            return ((J.MethodInvocation) methodCall).getSimpleName().equals(methodName);
+        }
+        if (methodCall instanceof J.MemberReference) {
+            return ((J.MemberReference) methodCall).getReference().getSimpleName().equals(methodName);
+        }
+        if (methodCall instanceof J.NewClass) {
+            J clazz = ((J.NewClass) methodCall).getClazz();
+            if (clazz instanceof J.ParameterizedType) {
+                clazz = ((J.ParameterizedType) clazz).getClazz();
+            }
+            if (clazz instanceof J.Identifier) {
+                return ((J.Identifier) clazz).getSimpleName().equals(methodName);
+            }
+            if (clazz instanceof J.FieldAccess) {
+                return ((J.FieldAccess) clazz).getSimpleName().equals(methodName);
+            }
+        }
+        return false;
     }
 
     /**
@@ -104,35 +194,94 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
      */
     private class AddTryCatchVisitor extends JavaIsoVisitor<ExecutionContext> {
 
+        private final RecipeMetrics.Recorder recorder = new RecipeMetrics.Recorder();
+
         private final MethodMatcher methodMatcher = new MethodMatcher(methodPattern, true);
 
+        private final String methodName = methodName();
+
+        private final Pattern exceptionPattern = Pattern.compile(fullyQualifiedExceptionName);
+
+        private final JavaTemplate tryCatchTemplate = TRY_CATCH_TEMPLATES.computeIfAbsent(
+                catchTemplateString + "\n" + fullyQualifiedExceptionName,
+                key -> JavaTemplate.builder("try { int a = null; a = 3; } " + catchTemplateString)
+                        .imports(fullyQualifiedExceptionName)
+                        .build());
+
+        @Override
+        public @Nullable J preVisit(J tree, ExecutionContext ctx) {
+            recorder.visited(tree);
+            return super.preVisit(tree, ctx);
+        }
+
         /**
          * Overridden visitBlock method performs the changes to methods filtered by visitMethodCall.
+         * Every matching call found in the block is handled in the same visit.
          */
         @Override
         public J.@NotNull Block visitBlock(J.@NotNull Block block, @NotNull ExecutionContext context) {
             J.Block body = super.visitBlock(block, context);
 
-            // Get the method that needs to be changed
-            MethodCall method = getCursor().pollMessage("METHOD");
-            if (method == null) {
+            // Get the methods that need to be changed
+            List<CallSite> callSites = getCursor().pollMessage("CALL_SITES");
+            if (callSites == null) {
+                return body;
+            }
+
+            // The original list of statements to alter
+            List<Statement> bodyStatements = body.getStatements();
+            // The index of each statement of the block by its id, as statements keep their id when their
+            // children are changed
+            Map<UUID, Integer> indexes = new HashMap<>(bodyStatements.size() * 2);
+            for (int i = 0; i < bodyStatements.size(); i++) {
+                indexes.putIfAbsent(bodyStatements.get(i).getId(), i);
+            }
+            // The statements replacing a statement of the block, keyed by the index of the replaced statement
+            Map<Integer, List<Statement>> replacements = new HashMap<>();
+            for (CallSite callSite : callSites) {
+                Integer index = indexes.get(callSite.getBlockStatement().getId());
+                if (index == null || replacements.containsKey(index)) {
+                    // Statement not found, or already wrapped for another call in the same statement
+                    continue;
+                }
+                List<Statement> replacement = wrap(callSite, bodyStatements.get(index));
+                if (replacement != null) {
+                    replacements.put(index, replacement);
+                }
+            }
+            if (replacements.isEmpty()) {
                 return body;
             }
 
-            //Get the parents of the method
-            Tree parent = getCursor().pollMessage("PARENT");
-            // Get the first statement parent of method
-            Statement parentStatement = getCursor().pollMessage("STATEMENT");
+            List<Statement> newStatements = new ArrayList<>(bodyStatements.size() + replacements.size());
+            for (int i = 0; i < bodyStatements.size(); i++) {
+                List<Statement> replacement = replacements.get(i);
+                if (replacement == null) {
+                    newStatements.add(bodyStatements.get(i));
+                } else {
+                    newStatements.addAll(replacement);
+                }
+            }
 
-            JavaTemplate tryCatchTemplate = JavaTemplate.builder("try { int a = null; a = 3; } " + catchTemplateString)
-                    .imports(fullyQualifiedExceptionName)
-                    .build();
+            // Update the body block with the new set of statements and return.
+            body = body.withStatements(newStatements);
+            // Add the import if needed
+            maybeAddImport(fullyQualifiedExceptionName,false);
+            return body;
+        }
 
+        /**
+         * Method to wrap the block statement containing a matching call in a try-catch block
+         *
+         * @param callSite The matching call
+         * @param blockStatement The statement of the visited block that contains the call
+         * @return The statements replacing the block statement, or null if it cannot be changed safely
+         */
+        private @Nullable List<Statement> wrap(CallSite callSite, Statement blockStatement) {
             // Create an empty block to apply the try-catch template based off the cursor values from the main body
             // This should create the correct formatting.
             J.Block b = J.Block.createEmptyBlock();
-            b = tryCatchTemplate.apply(new Cursor(getCursor(),b), b.getCoordinates().firstStatement());
-            int parentIndex;
+            b = recorder.apply(tryCatchTemplate, new Cursor(getCursor(),b), b.getCoordinates().firstStatement());
 
             // Extract the try-catch block and dummy elements
             J.Try _try = (J.Try) b.getStatements().get(0);
@@ -141,42 +290,33 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
 
             if (_try.getCatches().isEmpty()) {
                 // The catch template was incorrect, recipe is unsafe.
-                return body;
+                return null;
             }
-            // The original list of statements to alter
-            List<Statement> bodyStatements = body.getStatements();
+
+            List<Statement> replacement = new ArrayList<>();
+            Tree parent = callSite.getParent();
+            Statement parentStatement = callSite.getStatement();
 
             // Method is the first element on its line.
             if (parent == null) {
-                // Cast method as a statement and update the indentation (prefix)
-
-                Statement methodStatement = method.withPrefix(dummyVarDec.getPrefix());
-                parentIndex = body.getStatements().indexOf(methodStatement);
-                // Make it the only statement in the try block
+                // Update the indentation (prefix) and make it the only statement in the try block
                 _try = _try.withBody(_try.getBody().withStatements(ListUtils.insert(
-                        new ArrayList<>(), methodStatement, 0 )));
-
-                // Update the statements
-                bodyStatements.set(parentIndex, _try);
+                        new ArrayList<>(), blockStatement.withPrefix(dummyVarDec.getPrefix()), 0 )));
+                replacement.add(_try);
             }
-            else if (parent instanceof J.Assignment) {
-                parentIndex = body.getStatements().indexOf(parent);
-                J.Assignment new_assignment = ((J.Assignment) parent).withPrefix(dummyAssignment.getPrefix());
-
+            else if (parent instanceof J.Assignment && parent == callSite.getBlockStatement()) {
                 _try = _try.withBody(_try.getBody().withStatements(ListUtils.insert(
-                        new ArrayList<>(), new_assignment, 0 )));
-
-                bodyStatements.set(parentIndex, _try);
+                        new ArrayList<>(), blockStatement.withPrefix(dummyAssignment.getPrefix()), 0 )));
+                replacement.add(_try);
             }
-            else if (parentStatement instanceof J.VariableDeclarations) {
+            else if (parentStatement instanceof J.VariableDeclarations && parentStatement == callSite.getBlockStatement()) {
 
-                J.VariableDeclarations parentVd = (J.VariableDeclarations) parentStatement;
-                parentIndex = body.getStatements().indexOf(parentVd);
+                J.VariableDeclarations parentVd = (J.VariableDeclarations) blockStatement;
 
                 if (parentVd.getVariables().size() != 1) {
                     // Recipe can only handle a variable declaration with a single named variable at this time
                     // Could be changed.
-                    return body;
+                    return null;
                 }
 
                 J.VariableDeclarations.NamedVariable namedVariable = parentVd.getVariables().get(0);
@@ -196,48 +336,16 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
                 parentVd = parentVd.withVariables(ListUtils.insert(
                         new ArrayList<>(), namedVariable, 0 ));
 
-                // Replace the old VariableDeclarations
-                bodyStatements.set(parentIndex, parentVd);
-                // Add the try below it
-                bodyStatements.add(parentIndex +1, _try);
-
+                // Replace the old VariableDeclarations and add the try below it
+                replacement.add(parentVd);
+                replacement.add(_try);
             }
-            else { // Wrap method call in try catch for all other cases
-                int i = 0;
-                int index = -1;
-                for (Statement statement : body.getStatements()) {
-                    if (statement.print().contains(method.print())) {
-                        index = i;
-                    }
-                    i ++;
-                }
-                String tryCatchBlock = String.format(
-                        "try { %s; } %s", body.getStatements().get(index), catchTemplateString
-                );
-                JavaTemplate tryCatchNewTemplate = JavaTemplate.builder(tryCatchBlock)
-                        .imports(fullyQualifiedExceptionName)
-                        .build();
-
-                // Create an empty block to apply the try-catch template based off the cursor values from the main body
-                // This should create the correct formatting.
-                J.Block newBlock = J.Block.createEmptyBlock();
-                newBlock = tryCatchNewTemplate.apply(new Cursor(getCursor(),newBlock), newBlock.getCoordinates().firstStatement());
-
-                bodyStatements.remove(index);
-                for (Statement statement : newBlock.getStatements()) {
-                    bodyStatements.add(index, statement);
-                }
+            else { // Wrap the enclosing statement in try catch for all other cases
+                _try = _try.withBody(_try.getBody().withStatements(ListUtils.insert(
+                        new ArrayList<>(), blockStatement.withPrefix(dummyVarDec.getPrefix()), 0 )));
+                replacement.add(_try);
             }
-
-            // Update the body block with the new set of statements and return.
-            body = body.withStatements(bodyStatements);
-            // Add the import if needed
-            maybeAddImport(fullyQualifiedExceptionName,false);
-            return body;
-        }
-        public boolean containsSubstringWithParenthesis(String input, String substring) {
-            String regex = substring + "\\s*\\(";
-            return input.matches(".*" + regex + ".*");
+            return replacement;
         }
 
 
@@ -250,8 +358,7 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
                     // Make no changes
                     return visitSuper.get();
                 }
-                if (!containsSubstringWithParenthesis(methodCall.toString(), methodPattern.replaceAll("\\(.*?\\)", "").
-                        replaceAll("\\*", "").trim().split(" ")[1])){
+                if (!hasMethodName(methodCall, methodName)) {
                     // Make no changes
                     return visitSuper.get();
                 }
@@ -269,7 +376,7 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
                     // Check if the correct exception is caught
                     boolean isCaught = _try.getCatches().stream().anyMatch(
                             _catch -> Objects.requireNonNull(_catch.getParameter().getType())
-                                    .isAssignableFrom(Pattern.compile(fullyQualifiedExceptionName)));
+                                    .isAssignableFrom(exceptionPattern));
 
                     // Make no changes if exception already caught
                     if (isCaught) {
@@ -277,19 +384,32 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
                     }
                 }
             } catch (IllegalStateException ignored) {}
-            // If the method matches and exception is not caught set messages for block
-            getCursor().putMessageOnFirstEnclosing(J.Block.class, "METHOD", methodCall);
 
             Tree parent = getCursor().getParentTreeCursor().getValue();
-            if (! (parent instanceof J.Block)) {
-                // If the method is part of a nested statement flag the direct tree parent
-                getCursor().putMessageOnFirstEnclosing(J.Block.class, "PARENT", parent);
+            Statement statement = null;
+            Statement blockStatement;
+            if (parent instanceof J.Block) {
+                // Method is the first element on its line
+                blockStatement = (Statement) methodCall;
+            } else {
                 try {
-                    // And the first parent that is a statement
-                    Statement statement = getCursor().dropParentUntil(it -> it instanceof Statement).getValue();
-                    getCursor().putMessageOnFirstEnclosing(J.Block.class, "STATEMENT", statement);
-                } catch (IllegalStateException ignored) {}
+                    // Get the first parent that is a statement
+                    statement = getCursor().dropParentUntil(it -> it instanceof Statement).getValue();
+                    // And the statement of the enclosing block that contains the method
+                    Cursor blockStatementCursor = getCursor().getParentTreeCursor();
+                    while (!(blockStatementCursor.getParentTreeCursor().getValue() instanceof J.Block)) {
+                        blockStatementCursor = blockStatementCursor.getParentTreeCursor();
+                    }
+                    blockStatement = blockStatementCursor.getValue();
+                } catch (IllegalStateException e) {
+                    // Not within a block
+                    return visitSuper.get();
+                }
             }
+            // If the method matches and exception is not caught add it to the calls of the enclosing block
+            getCursor().dropParentUntil(it -> it instanceof J.Block)
+                    .computeMessageIfAbsent("CALL_SITES", key -> new ArrayList<CallSite>())
+                    .add(new CallSite(parent instanceof J.Block ? null : parent, statement, blockStatement));
 
             return visitSuper.get();
         }
@@ -315,4 +435,27 @@ public class AddTryCatchToMethodCallRecipe extends Recipe {
 
     } // end catchUncheckedVisitor
 
+    /**
+     * A matching method call found by the visitor, with the trees used to decide how it is wrapped
+     */
+    @Value
+    private static class CallSite {
+        /**
+         * The direct tree parent of the call, or null if the call is a statement of the block
+         */
+        @Nullable
+        Tree parent;
+
+        /**
+         * The first statement enclosing the call, or null if the call is a statement of the block
+         */
+        @Nullable
+        Statement statement;
+
+        /**
+         * The statement of the enclosing block that contains the call
+         */
+        Statement blockStatement;
+    }
+
 }
@@ -0,0 +1,81 @@
+package com.azure.recipes.core.v2;
+
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Statement;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * ClientCoreTypeTableGenerator writes the type table of ClientCoreTypes during the build, in the process-classes
+ * phase, by parsing a single stub declaring a field of every type of ClientCoreTypes.TYPE_NAMES against the
+ * bundled clientcore jar.
+ * --------------------------------------------------
+ * Usage: ClientCoreTypeTableGenerator path/to/core-1.0.0-beta.1.jar target/classes/META-INF/rewrite/clientcore-types.smile
+ */
+public final class ClientCoreTypeTableGenerator {
+
+    private ClientCoreTypeTableGenerator() {
+    }
+
+    /**
+     * Method to generate the type table
+     * @param args The path of the clientcore jar and the path of the table to write
+     * @throws IOException If the table can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ClientCoreTypeTableGenerator <clientcore jar> <type table>");
+        }
+        Map<String, JavaType.FullyQualified> types = generate(Paths.get(args[0]));
+        if (!types.keySet().containsAll(ClientCoreTypes.TYPE_NAMES)) {
+            throw new IllegalStateException("The clientcore jar " + args[0] + " is missing the types " +
+                    ClientCoreTypes.TYPE_NAMES.stream().filter(name -> !types.containsKey(name)).collect(Collectors.toList()));
+        }
+        Path table = Paths.get(args[1]);
+        Files.createDirectories(table.toAbsolutePath().getParent());
+        Files.write(table, ClientCoreTypes.mapper().writerFor(ClientCoreTypes.TABLE_TYPE).writeValueAsBytes(types));
+    }
+
+    /**
+     * Method to parse the clientcore type of every name of TYPE_NAMES
+     * @param jar The clientcore jar
+     * @return The clientcore type of every name of TYPE_NAMES found in the jar
+     */
+    static Map<String, JavaType.FullyQualified> generate(Path jar) {
+        StringBuilder stub = new StringBuilder("class ClientCoreTypeTable {");
+        for (int i = 0; i < ClientCoreTypes.TYPE_NAMES.size(); i++) {
+            stub.append("\n    ").append(ClientCoreTypes.TYPE_NAMES.get(i)).append(" field").append(i).append(';');
+        }
+        stub.append("\n}");
+        List<SourceFile> parsed = JavaParser.fromJavaVersion()
+                .classpath(Collections.singletonList(jar))
+                .logCompilationWarningsAndErrors(false)
+                .build()
+                .parse(new InMemoryExecutionContext(), stub.toString())
+                .collect(Collectors.toList());
+        Map<String, JavaType.FullyQualified> types = new LinkedHashMap<>();
+        if (parsed.size() != 1 || !(parsed.get(0) instanceof J.CompilationUnit)) {
+            return types;
+        }
+        List<Statement> fields = ((J.CompilationUnit) parsed.get(0)).getClasses().get(0).getBody().getStatements();
+        for (int i = 0; i < fields.size() && i < ClientCoreTypes.TYPE_NAMES.size(); i++) {
+            JavaType.FullyQualified type = ((J.VariableDeclarations) fields.get(i)).getTypeAsFullyQualified();
+            if (type != null && !(type instanceof JavaType.Unknown)) {
+                types.put(ClientCoreTypes.TYPE_NAMES.get(i), type);
+            }
+        }
+        return types;
+    }
+}
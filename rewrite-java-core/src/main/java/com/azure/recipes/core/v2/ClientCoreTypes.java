@@ -0,0 +1,132 @@
+package com.azure.recipes.core.v2;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.ConstructorDetector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeTree;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClientCoreTypes is the type table of the clientcore jar bundled in META-INF/rewrite/classpath. It gives
+ * the type trees created by the recipes the full type of their clientcore class, with its supertypes and
+ * methods, instead of the shallow type of TypeTree.build.
+ * --------------------------------------------------
+ * The table is generated during the build by ClientCoreTypeTableGenerator, which parses the bundled jar once,
+ * and is packaged as META-INF/rewrite/clientcore-types.smile. It is read on first use and shared by every
+ * recipe instance of the JVM, so a run neither parses nor copies the jar.
+ * --------------------------------------------------
+ * If the table is not on the classpath, e.g. when the classes are compiled outside of Maven, the table is
+ * empty and type trees keep their shallow type.
+ */
+final class ClientCoreTypes {
+
+    static final String TABLE_RESOURCE = "META-INF/rewrite/clientcore-types.smile";
+
+    static final TypeReference<Map<String, JavaType.FullyQualified>> TABLE_TYPE =
+            new TypeReference<Map<String, JavaType.FullyQualified>>() { };
+
+    /**
+     * The clientcore types the recipes create type trees for
+     */
+    static final List<String> TYPE_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "io.clientcore.core.http.models.HttpLogOptions",
+            "io.clientcore.core.http.models.HttpLogOptions.HttpLogDetailLevel",
+            "io.clientcore.core.http.models.HttpRetryOptions",
+            "io.clientcore.core.http.models.RequestOptions",
+            "io.clientcore.core.http.models.Response",
+            "io.clientcore.core.util.Context",
+            "io.clientcore.core.util.binarydata.BinaryData"));
+
+    private ClientCoreTypes() {
+    }
+
+    private static final class TypeTable {
+        static final Map<String, JavaType.FullyQualified> TYPES = load();
+    }
+
+    /**
+     * Method to get the type table, loading it on first use
+     * @return The clientcore type of every name of TYPE_NAMES found in the bundled jar
+     */
+    static Map<String, JavaType.FullyQualified> typeTable() {
+        return TypeTable.TYPES;
+    }
+
+    /**
+     * Method to build a type tree like TypeTree.build, typed with the full clientcore type when the type table has it
+     * @param name The fully qualified name of the type, with its prefix, e.g. " io.clientcore.core.util.Context"
+     * @return The type tree
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends TypeTree & Expression> T build(String name) {
+        T tree = TypeTree.build(name);
+        JavaType.FullyQualified type = typeTable().get(name.trim());
+        if (type == null) {
+            return tree;
+        }
+        if (tree instanceof J.FieldAccess) {
+            J.FieldAccess fieldAccess = (J.FieldAccess) tree;
+            return (T) fieldAccess.withName(fieldAccess.getName().withType(type)).withType(type);
+        }
+        return tree.withType(type);
+    }
+
+    /**
+     * Method to get the type of a clientcore class, for a tree the recipes rename rather than build
+     * @param name The fully qualified name of the type, e.g. io.clientcore.core.util.Context
+     * @return The full clientcore type when the type table has it, or else its shallow type
+     */
+    static JavaType.FullyQualified type(String name) {
+        JavaType.FullyQualified type = typeTable().get(name);
+        return type == null ? JavaType.ShallowClass.build(name) : type;
+    }
+
+    private static Map<String, JavaType.FullyQualified> load() {
+        try (InputStream in = ClientCoreTypes.class.getClassLoader().getResourceAsStream(TABLE_RESOURCE)) {
+            if (in == null) {
+                return Collections.emptyMap();
+            }
+            Map<String, JavaType.FullyQualified> types = mapper().readValue(in, TABLE_TYPE);
+            return Collections.unmodifiableMap(types);
+        } catch (IOException | RuntimeException e) {
+            // Without the type table, type trees keep the shallow type of TypeTree.build
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Method to create the mapper of the type table, configured like the RecipeSerializer of rewrite-core
+     * @return The mapper the table is written and read with
+     */
+    static ObjectMapper mapper() {
+        SmileFactory factory = new SmileFactory();
+        factory.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+        ObjectMapper mapper = JsonMapper.builder(factory)
+                .constructorDetector(ConstructorDetector.USE_PROPERTIES_BASED)
+                .build()
+                .registerModule(new ParameterNamesModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        return mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withCreatorVisibility(JsonAutoDetect.Visibility.PUBLIC_ONLY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY));
+    }
+}
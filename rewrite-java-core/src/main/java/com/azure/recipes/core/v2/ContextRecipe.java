@@ -2,9 +2,10 @@ package com.azure.recipes.core.v2;
 
 import org.jetbrains.annotations.NotNull;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.TypeTree;
 
@@ -26,7 +27,10 @@ import org.openrewrite.java.tree.TypeTree;
  * --------------------------------------------------
  * @author Ali Soltanian Fard Jahromi
  */
-public class ContextRecipe extends Recipe {
+public class ContextRecipe extends Recipe implements FusibleRecipe {
+
+    private final transient RecipeMetrics metrics = new RecipeMetrics(this);
+
     /**
      * Method to return a simple short description of ContextRecipe
      * @return A simple short description/name of the recipe
@@ -50,29 +54,60 @@ public class ContextRecipe extends Recipe {
      */
     @Override
     public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return metrics.measure(precondition(), fusibleVisitor());
+    }
+    /**
+     * Method to return the data table ContextRecipe writes its metrics to
+     * @return The RecipeMetrics of the recipe
+     */
+    @Override
+    public @NotNull RecipeMetrics getMetrics() {
+        return metrics;
+    }
+    /**
+     * Method to return the check for usages of Context or RequestOptions
+     * @return A TreeVisitor that marks the source files this recipe applies to
+     */
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> precondition() {
+        return Preconditions.or(
+                new UsesType<>("com.azure.core.util.Context", false),
+                new UsesType<>("com.azure.core.http.rest.RequestOptions", false));
+    }
+    /**
+     * Method to return a new instance of the visitor that changes Context and RequestOptions
+     * @return A visitor that can share a traversal with the visitors of other recipes
+     */
+    @Override
+    public @NotNull FusibleJavaIsoVisitor fusibleVisitor() {
         return new ChangeStaticFieldToMethodVisitor();
     }
     /**
      * Visitor to change NONE identifier to none()
      */
-    private static class ChangeStaticFieldToMethodVisitor extends JavaIsoVisitor<ExecutionContext> {
+    private static class ChangeStaticFieldToMethodVisitor extends FusibleJavaIsoVisitor {
+
+        private static final FieldAccessMatcher CONTEXT_NAMES = FieldAccessMatcher.of(
+                "com.azure.core.http.rest.RequestOptions", "com.azure.core.util.Context", "Context.NONE");
+
         /**
          * Method to change com.azure.core.util.Context to io.clientcore.core.util.Context
          */
         @Override
         public J.@NotNull FieldAccess visitFieldAccess(J.@NotNull FieldAccess fieldAccess, @NotNull ExecutionContext ctx) {
             J.FieldAccess visitedFieldAccess = super.visitFieldAccess(fieldAccess, ctx);
-            String fullyQualified = visitedFieldAccess.getTarget() + "." + visitedFieldAccess.getSimpleName();
-            if (fullyQualified.equals("com.azure.core.http.rest.RequestOptions")) {
-                return TypeTree.build(" io.clientcore.core.http.models.RequestOptions");
-            }
-            if (fullyQualified.equals("com.azure.core.util.Context")) {
-                return TypeTree.build(" io.clientcore.core.util.Context");
+            String fullyQualified = CONTEXT_NAMES.match(visitedFieldAccess);
+            if (fullyQualified == null) {
+                return visitedFieldAccess;
             }
-            if (fullyQualified.equals("Context.NONE")){
-                return TypeTree.build("Context.none()");
+            switch (fullyQualified) {
+                case "com.azure.core.http.rest.RequestOptions":
+                    return ClientCoreTypes.build(" io.clientcore.core.http.models.RequestOptions");
+                case "com.azure.core.util.Context":
+                    return ClientCoreTypes.build(" io.clientcore.core.util.Context");
+                default:
+                    return TypeTree.build("Context.none()");
             }
-            return visitedFieldAccess;
         }
     }
 }
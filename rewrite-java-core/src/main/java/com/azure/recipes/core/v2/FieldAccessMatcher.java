@@ -0,0 +1,88 @@
+package com.azure.recipes.core.v2;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FieldAccessMatcher matches J.FieldAccess chains, e.g. com.azure.core.util.Context, against a fixed set of
+ * dotted names without printing the chain.
+ * --------------------------------------------------
+ * The names are compiled into a trie of their segments from the last one to the first, and a chain is
+ * matched by walking its identifiers from right to left. Matching allocates nothing, so it can run on
+ * every J.FieldAccess of a repository.
+ * --------------------------------------------------
+ * Whitespace and comments inside the chain are ignored.
+ */
+final class FieldAccessMatcher {
+
+    private final Node root = new Node();
+
+    private FieldAccessMatcher() {
+    }
+
+    /**
+     * Method to compile the names to match
+     * @param names Dotted names, e.g. com.azure.core.http.rest.Response or Context.NONE
+     * @return The matcher for the names
+     */
+    static FieldAccessMatcher of(String... names) {
+        FieldAccessMatcher matcher = new FieldAccessMatcher();
+        for (String name : names) {
+            String[] segments = name.split("\\.");
+            if (segments.length < 2) {
+                throw new IllegalArgumentException("A field access has at least two segments: " + name);
+            }
+            Node node = matcher.root;
+            for (int i = segments.length - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(segments[i], segment -> new Node());
+            }
+            node.name = name;
+        }
+        return matcher;
+    }
+
+    /**
+     * Method to find which of the names a field access spells out
+     * @param fieldAccess The field access to match
+     * @return The matching name as it was given to of, or null if none match
+     */
+    @Nullable
+    String match(J.FieldAccess fieldAccess) {
+        Node node = root;
+        Expression current = fieldAccess;
+        while (current instanceof J.FieldAccess) {
+            J.FieldAccess segment = (J.FieldAccess) current;
+            node = node.children.get(segment.getSimpleName());
+            if (node == null) {
+                return null;
+            }
+            current = segment.getTarget();
+        }
+        if (!(current instanceof J.Identifier)) {
+            return null;
+        }
+        node = node.children.get(((J.Identifier) current).getSimpleName());
+        return node == null ? null : node.name;
+    }
+
+    /**
+     * Method to check if a field access spells out one of the names
+     * @param fieldAccess The field access to match
+     * @return True if the field access matches one of the names
+     */
+    boolean matches(J.FieldAccess fieldAccess) {
+        return match(fieldAccess) != null;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        @Nullable
+        private String name;
+    }
+}
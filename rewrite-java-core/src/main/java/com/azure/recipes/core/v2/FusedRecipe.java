@@ -0,0 +1,421 @@
+package com.azure.recipes.core.v2;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.jetbrains.annotations.NotNull;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.marker.RecipesThatMadeChanges;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FusedRecipe runs the recipes of a composite, such as MigrateAzureCoreSamplesToAzureCoreV2, as a single recipe
+ * that fuses the visitors of consecutive fusible recipes into one traversal of each source file.
+ * --------------------------------------------------
+ * The recipes are first put in an order that honors the ordering constraints, keeping the composite order
+ * wherever no constraint applies. Consecutive recipes implementing FusibleRecipe then share one traversal,
+ * where every node is handed to each of their visitors in that order. Any other recipe gets a traversal of
+ * its own, exactly as in the composite.
+ * --------------------------------------------------
+ * The preconditions of the fused recipes are checked once per source file, before the shared traversal,
+ * and only the visitors of the recipes that apply are dispatched to. Each visitor walks cursors of its own,
+ * so the cursor messages of one fused visitor are never seen by another. See FusibleRecipe for what a
+ * recipe must keep to for the fused run to match the composite.
+ * Use traversalCount to read how many traversals the run saved.
+ * --------------------------------------------------
+ * Every recipe keeps writing its RecipeMetrics. A fused recipe is timed around its precondition and each
+ * node handed to its visitor, and is counted as changing a source file when its visitor changed a node.
+ * The shared traversal is emitted as a single RecipeVisitEvent of FusedRecipe.
+ * --------------------------------------------------
+ * Every recipe that changes a source file is added to its RecipesThatMadeChanges marker, below FusedRecipe,
+ * so that a Result of the run names the recipes that made the change next to FusedRecipe itself.
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class FusedRecipe extends Recipe {
+
+    /**
+     * Ordering constraints of the MigrateAzureCoreSamplesToAzureCoreV2 composite
+     */
+    public static final List<Ordering> DEFAULT_ORDERINGS = Collections.singletonList(
+            // The try-catch templates match toObject calls before TypeReference is converted
+            new Ordering("com.azure.recipes.core.v2.AddTryCatchToMethodCallRecipe", "com.azure.recipes.core.v2.TypeReferenceRecipe"));
+
+    private static final String TRAVERSAL_COUNT = "com.azure.recipes.core.v2.FusedRecipe.traversalCount";
+
+    List<Recipe> recipes;
+
+    /**
+     * Constructor for FusedRecipe
+     * @param recipes The recipes to run; composites are replaced by the recipes they contain
+     * @param orderings The ordering constraints between the recipes
+     */
+    public FusedRecipe(List<Recipe> recipes, List<Ordering> orderings) {
+        List<Recipe> leaves = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            addLeafRecipes(recipe, leaves);
+        }
+        this.recipes = schedule(leaves, orderings);
+    }
+
+    /**
+     * Method to fuse a composite recipe with the default ordering constraints
+     * @param composite The composite recipe to fuse
+     * @return The fused recipe
+     */
+    public static FusedRecipe of(Recipe composite) {
+        return new FusedRecipe(Collections.singletonList(composite), DEFAULT_ORDERINGS);
+    }
+
+    /**
+     * Method to return a simple short description of FusedRecipe
+     * @return A simple short description/name of the recipe
+     */
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Run recipes with fused traversals";
+    }
+
+    /**
+     * Method to return a description of FusedRecipe
+     * @return A short description of the recipe
+     */
+    @Override
+    public @NotNull String getDescription() {
+        return "This recipe runs a list of recipes in one pass, sharing a single traversal of each source file between the visitors of consecutive fusible recipes.";
+    }
+
+    /**
+     * Method to return the visitor that runs every stage of the fused recipes over a source file
+     * @return A TreeVisitor running the fused and unfused stages in order
+     */
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        List<TreeVisitor<?, ExecutionContext>> stages = new ArrayList<>();
+        List<Recipe> stageRecipes = new ArrayList<>();
+        FusedJavaVisitor fused = null;
+        for (Recipe recipe : recipes) {
+            FusibleJavaIsoVisitor fusibleVisitor = recipe instanceof FusibleRecipe ? ((FusibleRecipe) recipe).fusibleVisitor() : null;
+            if (fusibleVisitor == null) {
+                fused = null;
+                stages.add(recipe.getVisitor());
+                stageRecipes.add(recipe);
+                continue;
+            }
+            if (fused == null) {
+                fused = new FusedJavaVisitor(this);
+                stages.add(fused);
+                stageRecipes.add(null);
+            }
+            fused.add(recipe, fusibleVisitor);
+        }
+        return new StagesVisitor(this, stages, stageRecipes);
+    }
+
+    /**
+     * Method to get the traversals counted by the fused recipes run with an execution context
+     * @param ctx The execution context of the run
+     * @return The traversal count of the run
+     */
+    public static TraversalCount traversalCount(ExecutionContext ctx) {
+        TraversalCount count = ctx.getMessage(TRAVERSAL_COUNT);
+        if (count == null) {
+            count = new TraversalCount();
+            ctx.putMessage(TRAVERSAL_COUNT, count);
+        }
+        return count;
+    }
+
+    /**
+     * Method to order recipes so that every ordering constraint is honored, keeping the given order
+     * wherever no constraint applies
+     * @param recipes The recipes in their original order
+     * @param orderings The ordering constraints
+     * @return The recipes in the order they are run
+     */
+    static List<Recipe> schedule(List<Recipe> recipes, List<Ordering> orderings) {
+        List<Recipe> pending = new ArrayList<>(recipes);
+        List<Recipe> scheduled = new ArrayList<>(recipes.size());
+        while (!pending.isEmpty()) {
+            int next = -1;
+            for (int i = 0; i < pending.size() && next < 0; i++) {
+                if (!mustWait(pending.get(i), pending, orderings)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                List<String> names = new ArrayList<>();
+                for (Recipe recipe : pending) {
+                    names.add(recipe.getName());
+                }
+                throw new IllegalArgumentException("The ordering constraints form a cycle between " + names);
+            }
+            scheduled.add(pending.remove(next));
+        }
+        return scheduled;
+    }
+
+    /**
+     * Method to check if a recipe has to wait for another pending recipe to run first
+     */
+    private static boolean mustWait(Recipe recipe, List<Recipe> pending, List<Ordering> orderings) {
+        for (Ordering ordering : orderings) {
+            if (!ordering.getAfter().equals(recipe.getName())) {
+                continue;
+            }
+            for (Recipe other : pending) {
+                if (other != recipe && ordering.getBefore().equals(other.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method to add a recipe run by a fused recipe to the recipes that made changes to a source file
+     */
+    private static Tree addRecipeThatMadeChanges(Tree sourceFile, FusedRecipe fusedRecipe, Recipe recipe) {
+        List<List<Recipe>> recipeStacks = new ArrayList<>();
+        recipeStacks.add(Arrays.asList(fusedRecipe, recipe));
+        return ((SourceFile) sourceFile).withMarkers(((SourceFile) sourceFile).getMarkers().computeByType(
+                new RecipesThatMadeChanges(Tree.randomId(), recipeStacks),
+                (existing, added) -> existing.withRecipes(concat(existing.getRecipes(), added.getRecipes()))));
+    }
+
+    private static List<List<Recipe>> concat(Collection<List<Recipe>> first, Collection<List<Recipe>> second) {
+        List<List<Recipe>> recipeStacks = new ArrayList<>(first);
+        recipeStacks.addAll(second);
+        return recipeStacks;
+    }
+
+    private static void addLeafRecipes(Recipe recipe, List<Recipe> leaves) {
+        if (recipe.getRecipeList().isEmpty()) {
+            if (recipe instanceof ScanningRecipe) {
+                throw new IllegalArgumentException(recipe.getName() + " is a scanning recipe and cannot be fused");
+            }
+            leaves.add(recipe);
+            return;
+        }
+        for (Recipe child : recipe.getRecipeList()) {
+            addLeafRecipes(child, leaves);
+        }
+    }
+
+    /**
+     * Constraint that the recipe named before runs before the recipe named after
+     */
+    @Value
+    public static class Ordering {
+        String before;
+        String after;
+    }
+
+    /**
+     * Number of traversals of source files made by the fused recipes, next to the number a run of the
+     * same recipes one after another would have made
+     */
+    public static class TraversalCount {
+
+        private final AtomicInteger unfused = new AtomicInteger();
+
+        private final AtomicInteger fused = new AtomicInteger();
+
+        void add(int unfusedTraversals, int fusedTraversals) {
+            unfused.addAndGet(unfusedTraversals);
+            fused.addAndGet(fusedTraversals);
+        }
+
+        /**
+         * @return The number of traversals made when every recipe walks the source files on its own
+         */
+        public int getUnfused() {
+            return unfused.get();
+        }
+
+        /**
+         * @return The number of traversals made by the fused recipes
+         */
+        public int getFused() {
+            return fused.get();
+        }
+    }
+
+    /**
+     * Visitor to run every stage over a source file, one after another
+     */
+    private static class StagesVisitor extends TreeVisitor<Tree, ExecutionContext> {
+
+        private final FusedRecipe fusedRecipe;
+
+        private final List<TreeVisitor<?, ExecutionContext>> stages;
+
+        /**
+         * The recipe of every stage, or null for a stage of fused recipes
+         */
+        private final List<Recipe> stageRecipes;
+
+        StagesVisitor(FusedRecipe fusedRecipe, List<TreeVisitor<?, ExecutionContext>> stages, List<Recipe> stageRecipes) {
+            this.fusedRecipe = fusedRecipe;
+            this.stages = stages;
+            this.stageRecipes = stageRecipes;
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, @NotNull ExecutionContext ctx) {
+            if (!(tree instanceof SourceFile)) {
+                return tree;
+            }
+            Tree visited = tree;
+            for (int i = 0; i < stages.size(); i++) {
+                TreeVisitor<?, ExecutionContext> stage = stages.get(i);
+                if (visited instanceof SourceFile && stage.isAcceptable((SourceFile) visited, ctx)) {
+                    if (!(stage instanceof FusedJavaVisitor)) {
+                        traversalCount(ctx).add(1, 1);
+                    }
+                    Tree before = visited;
+                    visited = stage.visit(visited, ctx);
+                    if (stageRecipes.get(i) != null && visited instanceof SourceFile && visited != before) {
+                        visited = addRecipeThatMadeChanges(visited, fusedRecipe, stageRecipes.get(i));
+                    }
+                }
+            }
+            return visited;
+        }
+    }
+
+    /**
+     * Visitor to walk a Java source file once, handing every node to each applicable fusible visitor
+     * after its children have been visited
+     */
+    private static class FusedJavaVisitor extends JavaVisitor<ExecutionContext> {
+
+        private final FusedRecipe fusedRecipe;
+
+        private final List<Recipe> recipes = new ArrayList<>();
+
+        private final List<TreeVisitor<?, ExecutionContext>> preconditions = new ArrayList<>();
+
+        private final List<FusibleJavaIsoVisitor> visitors = new ArrayList<>();
+
+        private final List<RecipeMetrics> metrics = new ArrayList<>();
+
+        /**
+         * The indexes of the visitors whose precondition marks the source file being visited
+         */
+        private List<Integer> applicable = Collections.emptyList();
+
+        private long[] wallTimes = new long[0];
+
+        private boolean[] changed = new boolean[0];
+
+        /**
+         * The cursors of each visitor, mirroring the cursors of the shared traversal so that the messages
+         * a visitor puts on a cursor are not seen by the other visitors
+         */
+        private final List<Map<Cursor, Cursor>> cursors = new ArrayList<>();
+
+        FusedJavaVisitor(FusedRecipe fusedRecipe) {
+            this.fusedRecipe = fusedRecipe;
+        }
+
+        void add(Recipe recipe, FusibleJavaIsoVisitor visitor) {
+            recipes.add(recipe);
+            preconditions.add(((FusibleRecipe) recipe).precondition());
+            visitors.add(visitor);
+            metrics.add(((FusibleRecipe) recipe).getMetrics());
+            cursors.add(new IdentityHashMap<>());
+        }
+
+        @Override
+        public boolean isAcceptable(@NotNull SourceFile sourceFile, @NotNull ExecutionContext ctx) {
+            return sourceFile instanceof JavaSourceFile;
+        }
+
+        @Override
+        public @Nullable J visit(@Nullable Tree tree, @NotNull ExecutionContext ctx) {
+            if (!(tree instanceof JavaSourceFile)) {
+                return super.visit(tree, ctx);
+            }
+            applicable = new ArrayList<>();
+            wallTimes = new long[visitors.size()];
+            changed = new boolean[visitors.size()];
+            for (int i = 0; i < visitors.size(); i++) {
+                long start = System.nanoTime();
+                boolean applies = preconditions.get(i).visit(tree, ctx) != tree;
+                wallTimes[i] += System.nanoTime() - start;
+                if (applies) {
+                    visitors.get(i).recorder.start(metrics.get(i).getRecipeName(), (SourceFile) tree);
+                    applicable.add(i);
+                }
+            }
+            traversalCount(ctx).add(applicable.size(), applicable.isEmpty() ? 0 : 1);
+            if (applicable.isEmpty()) {
+                return (J) tree;
+            }
+            Object event = RecipeEvents.beginRecipeVisit();
+            J visited;
+            try {
+                visited = super.visit(tree, ctx);
+            } finally {
+                cursors.forEach(Map::clear);
+            }
+            RecipeEvents.endRecipeVisit(event, FusedRecipe.class.getName(), (SourceFile) tree);
+            for (int i : applicable) {
+                metrics.get(i).record(ctx, (SourceFile) tree, wallTimes[i], visitors.get(i).recorder, changed[i]);
+                if (changed[i] && visited instanceof SourceFile) {
+                    visited = (J) addRecipeThatMadeChanges(visited, fusedRecipe, recipes.get(i));
+                }
+            }
+            return visited;
+        }
+
+        @Override
+        public @Nullable J postVisit(@NotNull J tree, @NotNull ExecutionContext ctx) {
+            J visited = tree;
+            for (int i : applicable) {
+                long start = System.nanoTime();
+                Cursor parent = cursor(cursors.get(i), getCursor().getParentOrThrow());
+                J node = visitors.get(i).visitNode(visited, ctx, parent, this::doAfterVisit);
+                wallTimes[i] += System.nanoTime() - start;
+                changed[i] |= node != visited;
+                visited = node;
+                if (visited == null) {
+                    return null;
+                }
+            }
+            return visited;
+        }
+
+        /**
+         * Method to return the cursor of a visitor for a cursor of the shared traversal, creating it and its
+         * parents the first time they are asked for
+         */
+        private static Cursor cursor(Map<Cursor, Cursor> cursors, Cursor shared) {
+            Cursor cursor = cursors.get(shared);
+            if (cursor == null) {
+                Cursor parent = shared.getParent();
+                cursor = new Cursor(parent == null ? null : cursor(cursors, parent), shared.getValue());
+                cursors.put(shared, cursor);
+            }
+            return cursor;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.azure.recipes.core.v2;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.util.function.Consumer;
+
+/**
+ * Base class for recipe visitors that can share a single traversal with other visitors in a FusedRecipe.
+ * --------------------------------------------------
+ * A fusible visitor must only change a node based on the node itself and its subtree, after calling
+ * super, which is how the field access, identifier and import visitors of this package are written.
+ * When fused, the shared traversal visits the children of a node first and then hands the node to
+ * visitNode, where the calls to super return the already visited children unchanged instead of
+ * walking them again.
+ * --------------------------------------------------
+ * Visitors added with doAfterVisit, e.g. by maybeAddImport, are run by the shared traversal once the
+ * whole source file has been visited.
+ * --------------------------------------------------
+ * Every node handed to the visitor is counted in its recorder, which the recipe writes to RecipeMetrics.
+ */
+abstract class FusibleJavaIsoVisitor extends JavaIsoVisitor<ExecutionContext> {
+
+    final RecipeMetrics.Recorder recorder = new RecipeMetrics.Recorder();
+
+    @Nullable
+    private J node;
+
+    @Nullable
+    private Consumer<TreeVisitor<?, ExecutionContext>> afterVisits;
+
+    /**
+     * Method to apply this visitor to a single node whose children have already been visited
+     * @param tree The node to visit
+     * @param ctx The execution context
+     * @param parent The cursor of the parent of the node in the shared traversal
+     * @param afterVisits The doAfterVisit of the shared traversal, which runs the visitors added with doAfterVisit
+     * @return The visited node, or null if the node is removed
+     */
+    @Nullable
+    J visitNode(J tree, ExecutionContext ctx, Cursor parent, Consumer<TreeVisitor<?, ExecutionContext>> afterVisits) {
+        this.node = tree;
+        this.afterVisits = afterVisits;
+        try {
+            return visit(tree, ctx, parent);
+        } finally {
+            this.node = null;
+            this.afterVisits = null;
+        }
+    }
+
+    @Override
+    public @Nullable J visit(@Nullable Tree tree, ExecutionContext ctx) {
+        if (node != null && tree != node) {
+            // The shared traversal has already visited the children of the node
+            return (J) tree;
+        }
+        return super.visit(tree, ctx);
+    }
+
+    @Override
+    public @Nullable J preVisit(J tree, ExecutionContext ctx) {
+        recorder.visited(tree);
+        return super.preVisit(tree, ctx);
+    }
+
+    @Override
+    public void doAfterVisit(TreeVisitor<?, ExecutionContext> visitor) {
+        if (afterVisits != null) {
+            afterVisits.accept(visitor);
+        } else {
+            super.doAfterVisit(visitor);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.azure.recipes.core.v2;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+
+/**
+ * FusibleRecipe is implemented by the recipes whose visitor can share a single traversal with the
+ * visitors of other recipes in a FusedRecipe.
+ * The recipe's getVisitor is expected to be getMetrics().measure(precondition(), fusibleVisitor()), which is
+ * Preconditions.check(precondition(), fusibleVisitor()) writing to the recipe's RecipeMetrics.
+ * --------------------------------------------------
+ * A fused run only matches a run of the recipes one after the other when the recipe keeps to the following:
+ * - Its precondition gives the same answer on the source file as parsed as on the source file changed by the
+ *   recipes fused before it, since the preconditions are all checked once, before the shared traversal.
+ * - Its visitor does not need to visit the nodes created by the recipes fused before it. A node changed by an
+ *   earlier visitor is handed to the later visitors, but the new nodes within it are not.
+ * Each fused visitor gets cursors of its own, so the messages it puts on a cursor are not seen by the others.
+ * The values of those cursors are the nodes of the source file before the shared traversal.
+ */
+interface FusibleRecipe {
+
+    /**
+     * Method to return the check deciding whether the recipe applies to a source file
+     * @return A TreeVisitor that marks the source files the recipe applies to
+     */
+    TreeVisitor<?, ExecutionContext> precondition();
+
+    /**
+     * Method to return a new instance of the recipe's visitor
+     * @return The visitor, or null if the recipe cannot be fused with its current options
+     */
+    @Nullable
+    FusibleJavaIsoVisitor fusibleVisitor();
+
+    /**
+     * Method to return the data table the recipe writes its metrics to
+     * @return The RecipeMetrics of the recipe
+     */
+    RecipeMetrics getMetrics();
+}
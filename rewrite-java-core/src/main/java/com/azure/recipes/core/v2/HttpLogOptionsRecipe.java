@@ -2,11 +2,13 @@ package com.azure.recipes.core.v2;
 
 import org.jetbrains.annotations.NotNull;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
-import org.openrewrite.java.tree.TypeTree;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
 
 /**
  * HttpLogOptionsRecipe change usage of the com.azure.core.http.policy.HttpLogDetailLevel while also changing
@@ -29,7 +31,10 @@ import org.openrewrite.java.tree.TypeTree;
  * --------------------------------------------------
  * @author Ali Soltanian Fard Jahromi
  */
-public class HttpLogOptionsRecipe extends Recipe {
+public class HttpLogOptionsRecipe extends Recipe implements FusibleRecipe {
+
+    private final transient RecipeMetrics metrics = new RecipeMetrics(this);
+
     /**
      * Method to return a simple short description of HttpLogOptionsRecipe
      * @return A simple short description/name of the recipe
@@ -53,29 +58,90 @@ public class HttpLogOptionsRecipe extends Recipe {
      */
     @Override
     public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return metrics.measure(precondition(), fusibleVisitor());
+    }
+    /**
+     * Method to return the data table HttpLogOptionsRecipe writes its metrics to
+     * @return The RecipeMetrics of the recipe
+     */
+    @Override
+    public @NotNull RecipeMetrics getMetrics() {
+        return metrics;
+    }
+    /**
+     * Method to return the check for usages of HttpLogOptions or HttpLogDetailLevel
+     * @return A TreeVisitor that marks the source files this recipe applies to
+     */
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> precondition() {
+        return Preconditions.or(
+                new UsesType<>("com.azure.core.http.policy.HttpLogOptions", false),
+                new UsesType<>("com.azure.core.http.policy.HttpLogDetailLevel", false));
+    }
+    /**
+     * Method to return a new instance of the visitor that migrates HttpLogOptions and HttpLogDetailLevel
+     * @return A visitor that can share a traversal with the visitors of other recipes
+     */
+    @Override
+    public @NotNull FusibleJavaIsoVisitor fusibleVisitor() {
         return new HttpLogOptionsVisitor();
     }
     /**
      * Visitor to change HttpLogOptions type and change usage of HttpLogDetailLevel
      */
-    private static class HttpLogOptionsVisitor extends JavaIsoVisitor<ExecutionContext> {
+    private static class HttpLogOptionsVisitor extends FusibleJavaIsoVisitor {
+
+        private static final FieldAccessMatcher HTTP_LOG_NAMES = FieldAccessMatcher.of(
+                "com.azure.core.http.policy.HttpLogOptions", "com.azure.core.http.policy.HttpLogDetailLevel");
+
         /**
-         * Method to change usage of the HttpLogDetailLevel while also changing the HttpLogOptions Type
+         * Method to change the fully qualified HttpLogOptions and HttpLogDetailLevel types
          */
         @Override
         public J.@NotNull FieldAccess visitFieldAccess(J.@NotNull FieldAccess fieldAccess, @NotNull ExecutionContext ctx) {
             J.FieldAccess visitedFieldAccess = super.visitFieldAccess(fieldAccess, ctx);
-            String fullyQualified = visitedFieldAccess.getTarget() + "." + visitedFieldAccess.getSimpleName();
-            if (fullyQualified.equals("com.azure.core.http.policy.HttpLogOptions")) {
-               return TypeTree.build(" io.clientcore.core.http.models.HttpLogOptions");
+            String fullyQualified = HTTP_LOG_NAMES.match(visitedFieldAccess);
+            if ("com.azure.core.http.policy.HttpLogOptions".equals(fullyQualified)) {
+               return ClientCoreTypes.build(" io.clientcore.core.http.models.HttpLogOptions");
             }
-            if (fullyQualified.equals("com.azure.core.http.policy.HttpLogDetailLevel") &&
-                    visitedFieldAccess.getSimpleName().equals("HttpLogDetailLevel") &&
-                    visitedFieldAccess.print().contains("com.azure")){
-                return TypeTree.build(" io.clientcore.core.http.models.HttpLogOptions.HttpLogDetailLevel");
+            if ("com.azure.core.http.policy.HttpLogDetailLevel".equals(fullyQualified)) {
+                return ClientCoreTypes.build(" io.clientcore.core.http.models.HttpLogOptions.HttpLogDetailLevel");
             }
             return visitedFieldAccess;
         }
+        /**
+         * Method to qualify HttpLogDetailLevel wherever it is used as a type name, e.g. the type of a variable,
+         * parameter or lambda parameter, a return type, a type argument, a cast, an instanceof or the target
+         * of HttpLogDetailLevel.HEADERS and HttpLogDetailLevel.valueOf(..).
+         * The identifier is renamed to HttpLogOptions.HttpLogDetailLevel, as ChangeType does for nested types.
+         */
+        @Override
+        public J.@NotNull Identifier visitIdentifier(J.@NotNull Identifier identifier, @NotNull ExecutionContext ctx) {
+            J.Identifier visitedIdentifier = super.visitIdentifier(identifier, ctx);
+            if (!isHttpLogDetailLevel(visitedIdentifier)) {
+                return visitedIdentifier;
+            }
+            maybeAddImport("io.clientcore.core.http.models.HttpLogOptions", false);
+            return visitedIdentifier.withSimpleName("HttpLogOptions.HttpLogDetailLevel")
+                    .withType(ClientCoreTypes.type("io.clientcore.core.http.models.HttpLogOptions.HttpLogDetailLevel"));
+        }
+        /**
+         * Method to check if an identifier is a type name referring to the azure core v1 HttpLogDetailLevel.
+         * The name of a fully qualified reference, e.g. of an import, is changed with the whole reference instead.
+         * References that could not be type attributed are matched by name.
+         */
+        private boolean isHttpLogDetailLevel(J.Identifier identifier) {
+            if (!identifier.getSimpleName().equals("HttpLogDetailLevel") || identifier.getFieldType() != null) {
+                return false;
+            }
+            Object parent = getCursor().getParentTreeCursor().getValue();
+            if (parent instanceof J.FieldAccess && ((J.FieldAccess) parent).getName().getId().equals(identifier.getId())) {
+                return false;
+            }
+            JavaType type = identifier.getType();
+            return type == null || type instanceof JavaType.Unknown
+                    || TypeUtils.isOfClassType(type, "com.azure.core.http.policy.HttpLogDetailLevel");
+        }
         /**
          * Method to remove unnecessary import fo HttpLogDetailLevel as the class is already included in client-core HttpLogOptions class
          */
@@ -0,0 +1,103 @@
+package com.azure.recipes.core.v2;
+
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.lang.Nullable;
+
+/**
+ * RecipeEvents emits the Java Flight Recorder events of the recipes of com.azure.recipes.core.v2, so that a
+ * migration recorded with -XX:StartFlightRecording shows every RecipeVisitEvent and TemplateApplyEvent in the
+ * same timeline as template compilation, tree printing and GC.
+ * --------------------------------------------------
+ * The project is compiled for Java 8, where jdk.jfr only exists from 8u262. The events are therefore only
+ * created when jdk.jfr is present and a recording has them enabled, and callers hold them as an Object so that
+ * the recipes still load on a JVM without it. Without a recording, beginning an event costs one allocation
+ * and returns null.
+ */
+final class RecipeEvents {
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private RecipeEvents() {
+    }
+
+    /**
+     * Method to begin a RecipeVisitEvent
+     * @return The event, or null if it is not recorded
+     */
+    @Nullable
+    static Object beginRecipeVisit() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        RecipeVisitEvent event = new RecipeVisitEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Method to end and commit a RecipeVisitEvent
+     * @param event The event returned by beginRecipeVisit
+     * @param recipe The name of the visiting recipe
+     * @param sourceFile The visited source file
+     */
+    static void endRecipeVisit(@Nullable Object event, String recipe, SourceFile sourceFile) {
+        if (event == null) {
+            return;
+        }
+        RecipeVisitEvent visit = (RecipeVisitEvent) event;
+        visit.end();
+        if (visit.shouldCommit()) {
+            visit.recipe = recipe;
+            visit.sourcePath = sourceFile.getSourcePath().toString();
+            visit.commit();
+        }
+    }
+
+    /**
+     * Method to begin a TemplateApplyEvent
+     * @return The event, or null if it is not recorded
+     */
+    @Nullable
+    static Object beginTemplateApply() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        TemplateApplyEvent event = new TemplateApplyEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Method to end and commit a TemplateApplyEvent
+     * @param event The event returned by beginTemplateApply
+     * @param recipe The name of the recipe applying the template
+     * @param sourcePath The path of the source file the template is applied in
+     */
+    static void endTemplateApply(@Nullable Object event, String recipe, String sourcePath) {
+        if (event == null) {
+            return;
+        }
+        TemplateApplyEvent apply = (TemplateApplyEvent) event;
+        apply.end();
+        if (apply.shouldCommit()) {
+            apply.recipe = recipe;
+            apply.sourcePath = sourcePath;
+            apply.commit();
+        }
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, RecipeEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
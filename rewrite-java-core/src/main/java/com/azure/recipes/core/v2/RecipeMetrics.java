@@ -0,0 +1,264 @@
+package com.azure.recipes.core.v2;
+
+import lombok.Value;
+import org.jetbrains.annotations.NotNull;
+import org.openrewrite.Column;
+import org.openrewrite.Cursor;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaCoordinates;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * RecipeMetrics is the data table every recipe of com.azure.recipes.core.v2 writes a row to for each source
+ * file it visits, recording where the time of a migration goes.
+ * --------------------------------------------------
+ * A row holds the wall time the recipe spent on the source file, including its precondition, the number of
+ * nodes its visitor visited by visitor method, e.g. visitFieldAccess=12 visitNewClass=1, the number of
+ * JavaTemplates it applied and whether it changed the source file.
+ * Source files ruled out by a recipe's precondition are visited by none of its visitor methods and get no row.
+ * --------------------------------------------------
+ * In a FusedRecipe the recipes sharing a traversal keep writing their own rows. The wall time of such a row is
+ * the time spent in the recipe's precondition and visitor, without the shared walk of the tree.
+ * --------------------------------------------------
+ * The same visits and template applications are emitted as RecipeEvents to Java Flight Recorder.
+ */
+public class RecipeMetrics extends DataTable<RecipeMetrics.Row> {
+
+    private final String recipeName;
+
+    /**
+     * Constructor for RecipeMetrics
+     * @param recipe The recipe writing the rows
+     */
+    public RecipeMetrics(Recipe recipe) {
+        super(recipe, "Recipe metrics",
+                "The wall time, visited nodes per visitor method, templates applied and changes of a recipe per source file.");
+        this.recipeName = recipe.getName();
+    }
+
+    /**
+     * Method to wrap the visitor of a fusible recipe so that it writes a row for each source file it visits
+     * @param precondition The check deciding whether the recipe applies to a source file
+     * @param visitor The visitor of the recipe
+     * @return A TreeVisitor running the visitor on the source files the precondition marks
+     */
+    TreeVisitor<?, ExecutionContext> measure(TreeVisitor<?, ExecutionContext> precondition, FusibleJavaIsoVisitor visitor) {
+        return new MeasuredVisitor(Preconditions.check(precondition, visitor), visitor.recorder);
+    }
+
+    /**
+     * Method to wrap the visitor of a recipe so that it writes a row for each source file it visits
+     * @param visitor The visitor of the recipe
+     * @param recorder The recorder the visitor counts its nodes and templates in, or null if it counts none,
+     * in which case a row is written for every source file
+     * @return A TreeVisitor running the visitor
+     */
+    TreeVisitor<?, ExecutionContext> measure(TreeVisitor<?, ExecutionContext> visitor, @Nullable Recorder recorder) {
+        return new MeasuredVisitor(visitor, recorder);
+    }
+
+    /**
+     * Method to get the name of the recipe writing the rows
+     * @return The recipe name
+     */
+    String getRecipeName() {
+        return recipeName;
+    }
+
+    /**
+     * Method to write the row of a source file. Visitors run outside a recipe run, e.g. by a benchmark, have no
+     * data tables, so no row is written for them.
+     * @param ctx The execution context of the run
+     * @param sourceFile The source file before the recipe visited it
+     * @param wallTimeNanos The wall time spent on the source file
+     * @param recorder The recorder of the visitor, or null if it counts nothing
+     * @param changed True if the recipe changed the source file
+     */
+    void record(ExecutionContext ctx, SourceFile sourceFile, long wallTimeNanos, @Nullable Recorder recorder, boolean changed) {
+        if (ctx.getMessage(ExecutionContext.CURRENT_CYCLE) == null) {
+            return;
+        }
+        insertRow(ctx, new Row(recipeName, sourceFile.getSourcePath().toString(), wallTimeNanos / 1000,
+                recorder == null ? 0 : recorder.visitedNodes,
+                recorder == null ? "" : recorder.visitCounts(),
+                recorder == null ? 0 : recorder.templatesApplied,
+                changed));
+    }
+
+    /**
+     * Row of RecipeMetrics, one per recipe and source file
+     */
+    @Value
+    public static class Row {
+        @Column(displayName = "Recipe",
+                description = "The name of the recipe.")
+        String recipe;
+
+        @Column(displayName = "Source path",
+                description = "The path of the source file, relative to the root of the project.")
+        String sourcePath;
+
+        @Column(displayName = "Wall time (us)",
+                description = "The wall time in microseconds the recipe spent on the source file, including its precondition.")
+        long wallTimeMicros;
+
+        @Column(displayName = "Visited nodes",
+                description = "The number of nodes the visitor of the recipe visited.")
+        int visitedNodes;
+
+        @Column(displayName = "Visit counts",
+                description = "The number of nodes visited by each visitor method, e.g. visitFieldAccess=12 visitBlock=3.")
+        String visitCounts;
+
+        @Column(displayName = "Templates applied",
+                description = "The number of JavaTemplates the recipe applied.")
+        int templatesApplied;
+
+        @Column(displayName = "Changed",
+                description = "Whether the recipe changed the source file.")
+        boolean changed;
+    }
+
+    /**
+     * Counts of the nodes a visitor visits and the templates it applies in the source file being visited.
+     * A recorder belongs to a single visitor instance, which visits one source file at a time.
+     */
+    static final class Recorder {
+
+        private final Map<Class<?>, int[]> visits = new IdentityHashMap<>();
+
+        private int visitedNodes;
+
+        private int templatesApplied;
+
+        private String recipeName = "";
+
+        private String sourcePath = "";
+
+        /**
+         * Method to clear the counts before the visitor visits a source file
+         * @param recipeName The name of the recipe of the visitor
+         * @param sourceFile The source file about to be visited
+         */
+        void start(String recipeName, SourceFile sourceFile) {
+            visits.clear();
+            visitedNodes = 0;
+            templatesApplied = 0;
+            this.recipeName = recipeName;
+            this.sourcePath = sourceFile.getSourcePath().toString();
+        }
+
+        /**
+         * Method to count a node handed to the visitor, called from preVisit
+         * @param tree The visited node
+         */
+        void visited(Tree tree) {
+            visitedNodes++;
+            int[] count = visits.get(tree.getClass());
+            if (count == null) {
+                visits.put(tree.getClass(), count = new int[1]);
+            }
+            count[0]++;
+        }
+
+        /**
+         * Method to apply a JavaTemplate for the visitor, counting it and emitting a TemplateApplyEvent
+         * @param template The template to apply
+         * @param scope The cursor of the tree the template is applied to
+         * @param coordinates The coordinates to apply the template at
+         * @param parameters The parameters of the template
+         * @return The tree with the template applied
+         */
+        <J2 extends J> J2 apply(JavaTemplate template, Cursor scope, JavaCoordinates coordinates, Object... parameters) {
+            Object event = RecipeEvents.beginTemplateApply();
+            J2 applied = template.apply(scope, coordinates, parameters);
+            RecipeEvents.endTemplateApply(event, recipeName, sourcePath);
+            templatesApplied++;
+            return applied;
+        }
+
+        int getVisitedNodes() {
+            return visitedNodes;
+        }
+
+        /**
+         * Method to list the counts by visitor method, sorted by method name
+         */
+        String visitCounts() {
+            Map<String, Integer> counts = new TreeMap<>();
+            for (Map.Entry<Class<?>, int[]> visit : visits.entrySet()) {
+                counts.merge(visitMethod(visit.getKey()), visit.getValue()[0], Integer::sum);
+            }
+            StringJoiner joiner = new StringJoiner(" ");
+            counts.forEach((method, count) -> joiner.add(method + "=" + count));
+            return joiner.toString();
+        }
+
+        /**
+         * Method to get the name of the visitor method of a node type, e.g. visitFieldAccess for J.FieldAccess
+         */
+        static String visitMethod(Class<?> type) {
+            switch (type.getSimpleName()) {
+                case "NamedVariable":
+                    return "visitVariable";
+                case "Resource":
+                    return "visitTryResource";
+                default:
+                    return "visit" + type.getSimpleName();
+            }
+        }
+    }
+
+    /**
+     * Visitor to time a recipe's visitor over each source file and write its row
+     */
+    private class MeasuredVisitor extends TreeVisitor<Tree, ExecutionContext> {
+
+        private final TreeVisitor<?, ExecutionContext> visitor;
+
+        @Nullable
+        private final Recorder recorder;
+
+        MeasuredVisitor(TreeVisitor<?, ExecutionContext> visitor, @Nullable Recorder recorder) {
+            this.visitor = visitor;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public boolean isAcceptable(@NotNull SourceFile sourceFile, @NotNull ExecutionContext ctx) {
+            return visitor.isAcceptable(sourceFile, ctx);
+        }
+
+        @Override
+        public @Nullable Tree visit(@Nullable Tree tree, @NotNull ExecutionContext ctx) {
+            if (!(tree instanceof SourceFile)) {
+                return visitor.visit(tree, ctx, getCursor());
+            }
+            if (recorder != null) {
+                recorder.start(recipeName, (SourceFile) tree);
+            }
+            Object event = RecipeEvents.beginRecipeVisit();
+            long start = System.nanoTime();
+            Tree visited = visitor.visit(tree, ctx, getCursor());
+            long wallTime = System.nanoTime() - start;
+            RecipeEvents.endRecipeVisit(event, recipeName, (SourceFile) tree);
+            if (recorder == null || recorder.getVisitedNodes() > 0) {
+                record(ctx, (SourceFile) tree, wallTime, recorder, visited != tree);
+            }
+            return visited;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.azure.recipes.core.v2;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of a recipe visiting a source file, lasting as long as the visit.
+ * Only created through RecipeEvents.
+ */
+@Name("com.azure.recipes.core.v2.RecipeVisit")
+@Label("Recipe Visit")
+@Category({"Azure SDK", "Rewrite"})
+@Description("A recipe of com.azure.recipes.core.v2 visiting a source file")
+@StackTrace(false)
+final class RecipeVisitEvent extends Event {
+
+    @Label("Recipe")
+    String recipe;
+
+    @Label("Source Path")
+    String sourcePath;
+}
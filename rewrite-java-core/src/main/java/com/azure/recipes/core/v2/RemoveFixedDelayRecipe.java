@@ -2,9 +2,10 @@ package com.azure.recipes.core.v2;
 
 import org.jetbrains.annotations.NotNull;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
 
 /**
@@ -18,7 +19,10 @@ import org.openrewrite.java.tree.J;
  * --------------------------------------------------
  * @author Ali Soltanian Fard Jahromi
  */
-public class RemoveFixedDelayRecipe extends Recipe {
+public class RemoveFixedDelayRecipe extends Recipe implements FusibleRecipe {
+
+    private final transient RecipeMetrics metrics = new RecipeMetrics(this);
+
     /**
      * Method to return a simple short description of RemoveFixedDelayRecipe
      * @return A simple short description/name of the recipe
@@ -41,12 +45,38 @@ public class RemoveFixedDelayRecipe extends Recipe {
      */
     @Override
     public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return metrics.measure(precondition(), fusibleVisitor());
+    }
+    /**
+     * Method to return the data table RemoveFixedDelayRecipe writes its metrics to
+     * @return The RecipeMetrics of the recipe
+     */
+    @Override
+    public @NotNull RecipeMetrics getMetrics() {
+        return metrics;
+    }
+    /**
+     * Method to return the check for usages of FixedDelayOptions or FixedDelay
+     * @return A TreeVisitor that marks the source files this recipe applies to
+     */
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> precondition() {
+        return Preconditions.or(
+                new UsesType<>("com.azure.core.http.policy.FixedDelayOptions", false),
+                new UsesType<>("com.azure.core.http.policy.FixedDelay", false));
+    }
+    /**
+     * Method to return a new instance of the visitor that removes FixedDelayOptions
+     * @return A visitor that can share a traversal with the visitors of other recipes
+     */
+    @Override
+    public @NotNull FusibleJavaIsoVisitor fusibleVisitor() {
         return new FixedDelayVisitor();
     }
     /**
      * Visitor to remove FixedDelayOptions
      */
-    private static class FixedDelayVisitor extends JavaIsoVisitor<ExecutionContext> {
+    private static class FixedDelayVisitor extends FusibleJavaIsoVisitor {
         /**
          * Method to remove unnecessary import for FixedDelay
          */
@@ -4,9 +4,8 @@ import org.jetbrains.annotations.NotNull;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.J;
-import org.openrewrite.java.tree.TypeTree;
 
 /**
  * ResponseRecipe changes all instances of Response (from azure core v1) to Response (from azure core v2).
@@ -20,7 +19,10 @@ import org.openrewrite.java.tree.TypeTree;
  * --------------------------------------------------
  * @author Ali Soltanian Fard Jahromi
  */
-public class ResponseRecipe extends Recipe {
+public class ResponseRecipe extends Recipe implements FusibleRecipe {
+
+    private final transient RecipeMetrics metrics = new RecipeMetrics(this);
+
     /**
      * Method to return a simple short description of ResponseRecipe
      * @return A simple short description/name of the recipe
@@ -43,21 +45,47 @@ public class ResponseRecipe extends Recipe {
      */
     @Override
     public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return metrics.measure(precondition(), fusibleVisitor());
+    }
+    /**
+     * Method to return the data table ResponseRecipe writes its metrics to
+     * @return The RecipeMetrics of the recipe
+     */
+    @Override
+    public @NotNull RecipeMetrics getMetrics() {
+        return metrics;
+    }
+    /**
+     * Method to return the check for usages of the azure core v1 Response
+     * @return A TreeVisitor that marks the source files this recipe applies to
+     */
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> precondition() {
+        return new UsesType<>("com.azure.core.http.rest.Response", false);
+    }
+    /**
+     * Method to return a new instance of the visitor that updates Response
+     * @return A visitor that can share a traversal with the visitors of other recipes
+     */
+    @Override
+    public @NotNull FusibleJavaIsoVisitor fusibleVisitor() {
         return new UpdateResponseVisitor();
     }
     /**
      * Visitor to update Response
      */
-    private static class UpdateResponseVisitor extends JavaIsoVisitor<ExecutionContext> {
+    private static class UpdateResponseVisitor extends FusibleJavaIsoVisitor {
+
+        private static final FieldAccessMatcher RESPONSE = FieldAccessMatcher.of("com.azure.core.http.rest.Response");
+
         /**
          * Method to change com.azure.core.http.rest.Response to io.clientcore.core.http.models.Response
          */
         @Override
         public J.@NotNull FieldAccess visitFieldAccess(J.@NotNull FieldAccess fieldAccess, @NotNull ExecutionContext ctx) {
             J.FieldAccess visitedFieldAccess = super.visitFieldAccess(fieldAccess, ctx);
-            String fullyQualified = visitedFieldAccess.getTarget() + "." + visitedFieldAccess.getSimpleName();
-            if (fullyQualified.equals("com.azure.core.http.rest.Response")) {
-                return TypeTree.build(" io.clientcore.core.http.models.Response");
+            if (RESPONSE.matches(visitedFieldAccess)) {
+                return ClientCoreTypes.build(" io.clientcore.core.http.models.Response");
             }
             return visitedFieldAccess;
         }
@@ -2,12 +2,13 @@ package com.azure.recipes.core.v2;
 
 import org.jetbrains.annotations.NotNull;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
-import org.openrewrite.java.tree.TypeTree;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,7 +31,10 @@ import java.util.Map;
  * --------------------------------------------------
  * @author Ali Soltanian Fard Jahromi
  */
-public class RetryOptionsConstructorRecipe extends Recipe {
+public class RetryOptionsConstructorRecipe extends Recipe implements FusibleRecipe {
+
+    private final transient RecipeMetrics metrics = new RecipeMetrics(this);
+
     /**
      * Method to return a simple short description of RetryOptionsRecipe
      * @return A simple short description/name of the recipe
@@ -55,14 +59,44 @@ public class RetryOptionsConstructorRecipe extends Recipe {
      */
     @Override
     public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return metrics.measure(precondition(), fusibleVisitor());
+    }
+    /**
+     * Method to return the data table RetryOptionsConstructorRecipe writes its metrics to
+     * @return The RecipeMetrics of the recipe
+     */
+    @Override
+    public @NotNull RecipeMetrics getMetrics() {
+        return metrics;
+    }
+    /**
+     * Method to return the check for usages of RetryOptions and the delay options
+     * @return A TreeVisitor that marks the source files this recipe applies to
+     */
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> precondition() {
+        return Preconditions.or(
+                new UsesType<>("com.azure.core.http.policy.RetryOptions", false),
+                new UsesType<>("com.azure.core.http.policy.FixedDelayOptions", false),
+                new UsesType<>("com.azure.core.http.policy.ExponentialDelayOptions", false),
+                new UsesMethod<>("*..* retryOptions(com.azure.core.http.policy.RetryOptions)", true));
+    }
+    /**
+     * Method to return a new instance of the visitor that changes the RetryOptions constructor
+     * @return A visitor that can share a traversal with the visitors of other recipes
+     */
+    @Override
+    public @NotNull FusibleJavaIsoVisitor fusibleVisitor() {
         return new RetryVisitor();
     }
     /**
      * Visitor to change RetryOptions constructor to HttpRetryOptions constructor
      */
-    private static class RetryVisitor extends JavaIsoVisitor<ExecutionContext> {
+    private static class RetryVisitor extends FusibleJavaIsoVisitor {
+
+        private static final String VARIABLE_TO_ARGS = "VARIABLE_TO_ARGS";
 
-        private final Map<String, List<Expression>> variableToArgsMap = new HashMap<>();
+        private static final FieldAccessMatcher HTTP_RETRY_OPTIONS = FieldAccessMatcher.of("com.azure.core.http.policy.HttpRetryOptions");
 
         /**
          * Method to visit variable declaration for FixedDelay or ExponentialDelay
@@ -82,7 +116,7 @@ public class RetryOptionsConstructorRecipe extends Recipe {
                         String className = newClass.getType().toString();
                         if (className.contains("FixedDelayOptions") || className.contains("ExponentialDelayOptions")) {
                             List<Expression> args = new ArrayList<>(newClass.getArguments());
-                            variableToArgsMap.put(variable.getSimpleName(), args);
+                            variableToArgs().put(variable.getSimpleName(), args);
                         }
                     }
                 }
@@ -101,7 +135,7 @@ public class RetryOptionsConstructorRecipe extends Recipe {
                     Expression constructorArg = visitedNewClass.getArguments().get(0);
                     if (constructorArg instanceof J.Identifier) {
                         String variableName = ((J.Identifier) constructorArg).getSimpleName();
-                        List<Expression> args = variableToArgsMap.get(variableName);
+                        List<Expression> args = variableToArgs().get(variableName);
                         if (args != null) {
                             return visitedNewClass.withArguments(args);
                         }
@@ -115,6 +149,15 @@ public class RetryOptionsConstructorRecipe extends Recipe {
             return visitedNewClass;
         }
 
+        /**
+         * Method to get the delay options arguments of the variables declared in the current compilation unit.
+         * The map lives on the compilation unit cursor so that it is discarded with it.
+         */
+        private Map<String, List<Expression>> variableToArgs() {
+            return getCursor().dropParentUntil(J.CompilationUnit.class::isInstance)
+                    .computeMessageIfAbsent(VARIABLE_TO_ARGS, key -> new HashMap<>());
+        }
+
         /**
          * Method to change RetryOptions to HttpRetryOptions
          */
@@ -133,9 +176,8 @@ public class RetryOptionsConstructorRecipe extends Recipe {
         @Override
         public J.@NotNull FieldAccess visitFieldAccess(J.@NotNull FieldAccess fieldAccess, @NotNull ExecutionContext ctx) {
             J.FieldAccess visitedFieldAccess = super.visitFieldAccess(fieldAccess, ctx);
-            String fullyQualified = visitedFieldAccess.getTarget() + "." + visitedFieldAccess.getSimpleName();
-            if (fullyQualified.equals("com.azure.core.http.policy.HttpRetryOptions")) {
-                return TypeTree.build(" io.clientcore.core.http.models.HttpRetryOptions");
+            if (HTTP_RETRY_OPTIONS.matches(visitedFieldAccess)) {
+                return ClientCoreTypes.build(" io.clientcore.core.http.models.HttpRetryOptions");
             }
             return visitedFieldAccess;
         }
@@ -0,0 +1,26 @@
+package com.azure.recipes.core.v2;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of a recipe applying a JavaTemplate, lasting as long as the template is compiled
+ * and applied. Only created through RecipeEvents.
+ */
+@Name("com.azure.recipes.core.v2.TemplateApply")
+@Label("Template Apply")
+@Category({"Azure SDK", "Rewrite"})
+@Description("A recipe of com.azure.recipes.core.v2 applying a JavaTemplate")
+@StackTrace(false)
+final class TemplateApplyEvent extends Event {
+
+    @Label("Recipe")
+    String recipe;
+
+    @Label("Source Path")
+    String sourcePath;
+}
@@ -0,0 +1,363 @@
+package com.azure.recipes.core.v2;
+
+import org.jetbrains.annotations.NotNull;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.ChangeType;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeTree;
+import org.openrewrite.java.tree.TypedTree;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TypeMigrationRecipe changes every azure-core type that has a one-to-one replacement in clientcore or
+ * azure-core-v2, using a single table of fully qualified names.
+ * Files that do not use any of the mapped names are not traversed at all. The others are traversed once,
+ * looking up every type, identifier and import in the table and rewriting it in place. As with ChangeType, the
+ * attributed types of the trees are changed too, e.g. the variable type of a declared variable or the method
+ * type of a call, so that the recipes run after this one see the replacement types only.
+ * --------------------------------------------------
+ * Before applying this recipe:
+ * import com.azure.core.http.HttpHeaderName;
+ * import com.azure.core.util.logging.ClientLogger;
+ * --------------------------------------------------
+ * After applying this recipe:
+ * import io.clientcore.core.http.models.HttpHeaderName;
+ * import io.clientcore.core.util.ClientLogger;
+ * --------------------------------------------------
+ */
+public class TypeMigrationRecipe extends Recipe {
+
+    /**
+     * azure-core fully qualified type name to its clientcore or azure-core-v2 replacement.
+     */
+    static final Map<String, String> TYPE_MAPPINGS;
+
+    /**
+     * azure-core package name to its clientcore replacement. Sub-packages are changed as well.
+     */
+    static final Map<String, String> PACKAGE_MAPPINGS;
+
+    static {
+        Map<String, String> types = new LinkedHashMap<>();
+        types.put("com.azure.core.http.HttpHeaderName", "io.clientcore.core.http.models.HttpHeaderName");
+        types.put("com.azure.core.util.logging.ClientLogger", "io.clientcore.core.util.ClientLogger");
+        types.put("com.azure.core.util.CoreUtils", "com.azure.core.v2.util.CoreUtils");
+        types.put("com.azure.core.http.policy.KeyCredentialPolicy", "io.clientcore.core.http.pipeline.KeyCredentialPolicy");
+        types.put("com.azure.core.credential.KeyCredential", "io.clientcore.core.credential.KeyCredential");
+        types.put("com.azure.core.client.traits.KeyCredentialTrait", "io.clientcore.core.models.traits.KeyCredentialTrait");
+        types.put("com.azure.core.http.HttpClient", "io.clientcore.core.http.client.HttpClient");
+        types.put("com.azure.core.http.HttpPipeline", "io.clientcore.core.http.pipeline.HttpPipeline");
+        types.put("com.azure.core.http.policy.HttpPipelinePolicy", "io.clientcore.core.http.pipeline.HttpPipelinePolicy");
+        types.put("com.azure.core.exception.ClientAuthenticationException", "com.azure.core.v2.exception.ClientAuthenticationException");
+        types.put("com.azure.core.exception.ResourceModifiedException", "com.azure.core.v2.exception.ResourceModifiedException");
+        types.put("com.azure.core.exception.ResourceNotFoundException", "com.azure.core.v2.exception.ResourceNotFoundException");
+        types.put("com.azure.core.exception.HttpResponseException", "io.clientcore.core.http.exception.HttpResponseException");
+        types.put("com.azure.core.util.Configuration", "io.clientcore.core.util.configuration.Configuration");
+        TYPE_MAPPINGS = Collections.unmodifiableMap(types);
+
+        Map<String, String> packages = new LinkedHashMap<>();
+        packages.put("com.azure.core.credential", "io.clientcore.core.credential");
+        PACKAGE_MAPPINGS = Collections.unmodifiableMap(packages);
+    }
+
+    private final transient RecipeMetrics metrics = new RecipeMetrics(this);
+
+    /**
+     * Method to return a simple short description of TypeMigrationRecipe
+     * @return A simple short description/name of the recipe
+     */
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Change azure-core types to their clientcore and azure-core-v2 replacements";
+    }
+
+    /**
+     * Method to return a description of TypeMigrationRecipe
+     * @return A short description of the recipe
+     */
+    @Override
+    public @NotNull String getDescription() {
+        return "This recipe changes every azure-core type and package with a one-to-one replacement in clientcore or azure-core-v2.\n" +
+                "The mapping is applied from a single table keyed by fully qualified name.";
+    }
+
+    /**
+     * Method to return the visitor that applies the type mappings used by a compilation unit
+     * @return A TreeVisitor that rewrites the mapped types, identifiers and imports in place
+     */
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        TypeMigrationVisitor visitor = new TypeMigrationVisitor();
+        return metrics.measure(visitor, visitor.recorder);
+    }
+
+    /**
+     * Method to get the replacement of a fully qualified name from the type table, or from the package table
+     * for a type, a member or a wildcard of a mapped package or sub-package
+     * @param name The fully qualified name, e.g. com.azure.core.util.CoreUtils or com.azure.core.credential.*
+     * @return The replacement name, or null if the name is not mapped
+     */
+    @Nullable
+    static String migratedName(String name) {
+        String migrated = TYPE_MAPPINGS.get(name);
+        if (migrated != null) {
+            return migrated;
+        }
+        for (int dot = name.lastIndexOf('.'); dot > 0; dot = name.lastIndexOf('.', dot - 1)) {
+            String prefix = name.substring(0, dot);
+            migrated = TYPE_MAPPINGS.get(prefix);
+            if (migrated == null) {
+                migrated = PACKAGE_MAPPINGS.get(prefix);
+            }
+            if (migrated != null) {
+                return migrated + name.substring(dot);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to change every mapped type within a type, e.g. the type arguments of a parameterized type or the
+     * element type of an array, to its replacement, with its full clientcore type when ClientCoreTypes has it
+     * @param type The attributed type of a tree
+     * @return The type with its mapped types changed, or the same instance when it has none
+     */
+    @Nullable
+    static JavaType migrate(@Nullable JavaType type) {
+        return migrate(type, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Method to change the mapped types of the declaring type, the return type, the parameter types and the
+     * thrown exceptions of a method type
+     */
+    @Nullable
+    static JavaType.Method migrateMethod(@Nullable JavaType.Method method) {
+        return (JavaType.Method) migrate(method);
+    }
+
+    /**
+     * Method to change the mapped types of the owner and the type of a variable type
+     */
+    @Nullable
+    static JavaType.Variable migrateVariable(@Nullable JavaType.Variable variable) {
+        return (JavaType.Variable) migrate(variable);
+    }
+
+    @Nullable
+    private static JavaType migrate(@Nullable JavaType type, Set<JavaType> visiting) {
+        // A type variable may be bounded by itself, e.g. T extends Comparable<T>
+        if (type == null || !visiting.add(type)) {
+            return type;
+        }
+        try {
+            if (type instanceof JavaType.Parameterized) {
+                JavaType.Parameterized parameterized = (JavaType.Parameterized) type;
+                JavaType.FullyQualified raw = (JavaType.FullyQualified) migrate(parameterized.getType(), visiting);
+                List<JavaType> typeParameters = ListUtils.map(parameterized.getTypeParameters(), t -> migrate(t, visiting));
+                return raw == parameterized.getType() && typeParameters == parameterized.getTypeParameters() ? parameterized
+                        : parameterized.withType(raw).withTypeParameters(typeParameters);
+            }
+            if (type instanceof JavaType.FullyQualified) {
+                String migrated = migratedName(((JavaType.FullyQualified) type).getFullyQualifiedName());
+                return migrated == null ? type : ClientCoreTypes.type(migrated);
+            }
+            if (type instanceof JavaType.Array) {
+                JavaType.Array array = (JavaType.Array) type;
+                JavaType elemType = migrate(array.getElemType(), visiting);
+                return elemType == array.getElemType() ? array : array.withElemType(elemType);
+            }
+            if (type instanceof JavaType.GenericTypeVariable) {
+                JavaType.GenericTypeVariable variable = (JavaType.GenericTypeVariable) type;
+                List<JavaType> bounds = ListUtils.map(variable.getBounds(), t -> migrate(t, visiting));
+                return bounds == variable.getBounds() ? variable : variable.withBounds(bounds);
+            }
+            if (type instanceof JavaType.Method) {
+                JavaType.Method method = (JavaType.Method) type;
+                JavaType.FullyQualified declaringType = (JavaType.FullyQualified) migrate(method.getDeclaringType(), visiting);
+                JavaType returnType = migrate(method.getReturnType(), visiting);
+                List<JavaType> parameterTypes = ListUtils.map(method.getParameterTypes(), t -> migrate(t, visiting));
+                List<JavaType.FullyQualified> thrownExceptions = ListUtils.map(method.getThrownExceptions(),
+                        t -> (JavaType.FullyQualified) migrate(t, visiting));
+                if (declaringType == method.getDeclaringType() && returnType == method.getReturnType()
+                        && parameterTypes == method.getParameterTypes() && thrownExceptions == method.getThrownExceptions()) {
+                    return method;
+                }
+                return method.withDeclaringType(declaringType).withReturnType(returnType)
+                        .withParameterTypes(parameterTypes).withThrownExceptions(thrownExceptions);
+            }
+            if (type instanceof JavaType.Variable) {
+                JavaType.Variable variable = (JavaType.Variable) type;
+                JavaType owner = migrate(variable.getOwner(), visiting);
+                JavaType variableType = migrate(variable.getType(), visiting);
+                return owner == variable.getOwner() && variableType == variable.getType() ? variable
+                        : variable.withOwner(owner).withType(variableType);
+            }
+            return type;
+        } finally {
+            visiting.remove(type);
+        }
+    }
+
+    /**
+     * Visitor to look up every type, identifier and import in the mapping table and rewrite it in place,
+     * in a single traversal of the compilation unit
+     */
+    private static class TypeMigrationVisitor extends JavaVisitor<ExecutionContext> {
+
+        final RecipeMetrics.Recorder recorder = new RecipeMetrics.Recorder();
+
+        @Override
+        public @Nullable J preVisit(J tree, ExecutionContext ctx) {
+            recorder.visited(tree);
+            return super.preVisit(tree, ctx);
+        }
+
+        /**
+         * Method to change the mapped types within the attributed types of a tree, once its children are visited
+         */
+        @Override
+        public @Nullable J postVisit(J tree, ExecutionContext ctx) {
+            J j = super.postVisit(tree, ctx);
+            if (j instanceof J.MethodInvocation) {
+                J.MethodInvocation method = (J.MethodInvocation) j;
+                return method.withMethodType(migrateMethod(method.getMethodType()));
+            }
+            if (j instanceof J.NewClass) {
+                J.NewClass newClass = (J.NewClass) j;
+                return newClass.withMethodType(migrateMethod(newClass.getMethodType()));
+            }
+            if (j instanceof J.MemberReference) {
+                J.MemberReference reference = (J.MemberReference) j;
+                return reference.withMethodType(migrateMethod(reference.getMethodType()))
+                        .withVariableType(migrateVariable(reference.getVariableType()));
+            }
+            if (j instanceof J.MethodDeclaration) {
+                J.MethodDeclaration method = (J.MethodDeclaration) j;
+                return method.withMethodType(migrateMethod(method.getMethodType()));
+            }
+            if (j instanceof J.VariableDeclarations.NamedVariable) {
+                J.VariableDeclarations.NamedVariable variable = (J.VariableDeclarations.NamedVariable) j;
+                return variable.withVariableType(migrateVariable(variable.getVariableType()));
+            }
+            if (j instanceof J.Identifier) {
+                J.Identifier identifier = (J.Identifier) j;
+                j = identifier.withFieldType(migrateVariable(identifier.getFieldType()));
+            }
+            if (j instanceof TypedTree) {
+                TypedTree typed = (TypedTree) j;
+                JavaType migrated = migrate(typed.getType());
+                if (migrated != typed.getType()) {
+                    j = typed.withType(migrated);
+                }
+            }
+            return j;
+        }
+
+        @Override
+        public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            if (!usesMappedName(cu)) {
+                return cu;
+            }
+            J.CompilationUnit c = (J.CompilationUnit) super.visitCompilationUnit(cu, ctx);
+            // A declaration of a mapped type is renamed with its package and its file, which ChangeType does
+            for (J.ClassDeclaration classDecl : cu.getClasses()) {
+                JavaType.FullyQualified type = classDecl.getType();
+                String migrated = type == null ? null : migratedName(type.getFullyQualifiedName());
+                if (migrated != null) {
+                    c = (J.CompilationUnit) new ChangeType(type.getFullyQualifiedName(), migrated, false)
+                            .getVisitor().visitNonNull(c, ctx);
+                }
+            }
+            return c;
+        }
+
+        /**
+         * Method to rewrite an import of a mapped type, of a member of a mapped type or of a mapped package
+         */
+        @Override
+        public J visitImport(J.Import anImport, ExecutionContext ctx) {
+            String migrated = migratedName(anImport.getQualid().toString());
+            if (migrated == null) {
+                return anImport;
+            }
+            return anImport.withQualid(TypeTree.<J.FieldAccess>build(migrated).withPrefix(anImport.getQualid().getPrefix()));
+        }
+
+        /**
+         * Method to rewrite a fully qualified reference to a mapped type, e.g. com.azure.core.util.CoreUtils
+         */
+        @Override
+        public J visitFieldAccess(J.FieldAccess fieldAccess, ExecutionContext ctx) {
+            J j = super.visitFieldAccess(fieldAccess, ctx);
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(fieldAccess.getType());
+            if (type == null || !fieldAccess.isFullyQualifiedClassReference(type.getFullyQualifiedName())) {
+                return j;
+            }
+            String migrated = migratedName(type.getFullyQualifiedName());
+            if (migrated == null) {
+                return j;
+            }
+            return TypeTree.<J.FieldAccess>build(migrated).withPrefix(fieldAccess.getPrefix())
+                    .withType(ClientCoreTypes.type(migrated));
+        }
+
+        /**
+         * Method to rewrite a simple name in a type position attributed to a mapped type, e.g. the KeyCredential
+         * of new KeyCredential(key), giving it the replacement type
+         */
+        @Override
+        public J visitIdentifier(J.Identifier identifier, ExecutionContext ctx) {
+            J.Identifier i = (J.Identifier) super.visitIdentifier(identifier, ctx);
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(i.getType());
+            if (i.getFieldType() != null || type == null || !i.getSimpleName().equals(type.getClassName())) {
+                return i;
+            }
+            String migrated = migratedName(type.getFullyQualifiedName());
+            if (migrated == null) {
+                return i;
+            }
+            Object parent = getCursor().getParentTreeCursor().getValue();
+            if (!(parent instanceof J.FieldAccess && ((J.FieldAccess) parent).getName() == identifier)) {
+                // The simple name may have been imported with a wildcard import of the old package
+                maybeAddImport(migrated);
+            }
+            return i.withSimpleName(migrated.substring(migrated.lastIndexOf('.') + 1))
+                    .withType(ClientCoreTypes.type(migrated));
+        }
+
+        /**
+         * Method to check if a compilation unit uses any name of the tables.
+         * The names in use are collected from the cached type attribution and the imports, which covers
+         * sources whose imports could not be attributed.
+         */
+        private static boolean usesMappedName(JavaSourceFile cu) {
+            for (JavaType type : cu.getTypesInUse().getTypesInUse()) {
+                JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(type);
+                if (fullyQualified != null && migratedName(fullyQualified.getFullyQualifiedName()) != null) {
+                    return true;
+                }
+            }
+            for (J.Import anImport : cu.getImports()) {
+                if (migratedName(anImport.getQualid().toString()) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
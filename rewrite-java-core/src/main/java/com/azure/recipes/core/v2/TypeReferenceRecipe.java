@@ -1,18 +1,38 @@
 package com.azure.recipes.core.v2;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
 import org.jetbrains.annotations.NotNull;
 import org.openrewrite.Cursor;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaCoordinates;
+import org.openrewrite.java.tree.JavaSourceFile;
 import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.java.tree.Statement;
 import org.openrewrite.java.tree.TypeTree;
+import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -44,9 +64,35 @@ import java.util.Set;
     }
     });
  * --------------------------------------------------
+ * With hoistToConstants enabled, TypeReference instances created at call sites are replaced by one
+ * private static final Type constant per distinct generic type in each class, and existing TypeReference
+ * constants for the same generic type are reused:
+ *  result = binaryDataResponse.getValue().toObject(TYPE_REFERENCE_LIST_TRANSLATED_TEXT_ITEM);
+ * --------------------------------------------------
  * @author Ali Soltanian Fard Jahromi
  */
-public class TypeReferenceRecipe extends Recipe {
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class TypeReferenceRecipe extends Recipe implements FusibleRecipe {
+
+    @Option(displayName = "Hoist to constants",
+            description = "When enabled, TypeReference instances created at call sites are replaced by one private static final Type constant per distinct generic type in each class.",
+            required = false)
+    @Nullable
+    Boolean hoistToConstants;
+
+    private static final String TYPE_REFERENCE = "com.azure.core.util.serializer.TypeReference";
+
+    transient RecipeMetrics metrics = new RecipeMetrics(this);
+
+    public TypeReferenceRecipe() {
+        this(null);
+    }
+
+    @JsonCreator
+    public TypeReferenceRecipe(@Nullable @JsonProperty("hoistToConstants") Boolean hoistToConstants) {
+        this.hoistToConstants = hoistToConstants;
+    }
 
     @Override
     public @NotNull String getDisplayName() {
@@ -60,10 +106,50 @@ public class TypeReferenceRecipe extends Recipe {
 
     @Override
     public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new ConvertTypeReferenceVisitor();
+        return metrics.measure(precondition(), new ConvertTypeReferenceVisitor(Boolean.TRUE.equals(hoistToConstants)));
+    }
+
+    /**
+     * Method to return the check for usages of TypeReference or BinaryData
+     * @return A TreeVisitor that marks the source files this recipe applies to
+     */
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> precondition() {
+        return Preconditions.or(
+                new UsesType<>("com.azure.core.util.serializer.TypeReference", false),
+                new UsesType<>("com.azure.core.util.BinaryData", false));
+    }
+
+    /**
+     * Method to return a new instance of the visitor that converts TypeReference.
+     * Hoisting moves TypeReference instances between classes before converting them, so it cannot share a traversal.
+     * @return A visitor that can share a traversal with the visitors of other recipes, or null when hoisting
+     */
+    @Override
+    public @Nullable FusibleJavaIsoVisitor fusibleVisitor() {
+        return Boolean.TRUE.equals(hoistToConstants) ? null : new ConvertTypeReferenceVisitor(false);
     }
 
-    private static class ConvertTypeReferenceVisitor extends JavaIsoVisitor<ExecutionContext> {
+    private static class ConvertTypeReferenceVisitor extends FusibleJavaIsoVisitor {
+
+        private static final String IMPORT_SET = "IMPORT_SET";
+
+        private static final FieldAccessMatcher BINARY_DATA = FieldAccessMatcher.of("com.azure.core.util.BinaryData");
+
+        // The methods of the anonymous ParameterizedType, compiled once for every call site
+        private static final JavaTemplate RAW_TYPE_TEMPLATE =
+                JavaTemplate.builder("@Override public Type getRawType() { return #{}.class; }").build();
+        private static final JavaTemplate ACTUAL_TYPE_ARGUMENTS_TEMPLATE =
+                JavaTemplate.builder("@Override public Type[] getActualTypeArguments() { return new Type[] { #{} }; }").build();
+        private static final JavaTemplate OWNER_TYPE_TEMPLATE =
+                JavaTemplate.builder("@Override public Type getOwnerType() { return null; }").build();
+
+        private final boolean hoistToConstants;
+
+        ConvertTypeReferenceVisitor(boolean hoistToConstants) {
+            this.hoistToConstants = hoistToConstants;
+        }
+
         /**
          * Method to visit instantiation of TypeReference and replace it with ParameterizedType
          * instantiation including override methods.
@@ -71,79 +157,151 @@ public class TypeReferenceRecipe extends Recipe {
         @Override
         public J.@NotNull NewClass visitNewClass(J.@NotNull NewClass newClass, @NotNull ExecutionContext ctx) {
             J.NewClass visitedNewClass = super.visitNewClass(newClass, ctx);
+            if (!isTypeReference(visitedNewClass)) {
+                return visitedNewClass;
+            }
 
-            // Check if the TypeReference reference has already been transformed
-            if (visitedNewClass.getBody() == null){return visitedNewClass;}
-            boolean alreadyTransformed = visitedNewClass.getBody().getStatements().stream()
-                    .filter(statement -> statement instanceof J.MethodDeclaration)
-                    .map(J.MethodDeclaration.class::cast)
-                    .anyMatch(methodDeclaration -> methodDeclaration.getName().getSimpleName().equals("getRawType"));
-            if (visitedNewClass.getClazz() == null){return visitedNewClass;}
-            if (!alreadyTransformed && visitedNewClass.getClazz().toString().contains("TypeReference")) {
-                // Extract type from generic type in TypeReference declaration
-                String genType = null;
-                String type = null;
-                String type2 = null;
-                List<JavaType> fullType = null;
-
-
-                if(visitedNewClass.getClazz().getType() != null){
-                    try {
-                        fullType = ((JavaType.Parameterized) visitedNewClass.getClazz().getType()).getTypeParameters();
-                        if (fullType.get(0) instanceof JavaType.Parameterized) { // Check if using parameterized type
-                            type = ((JavaType.Class)((JavaType.Parameterized) fullType.get(0)).getTypeParameters().get(0)).getClassName();
-                            if (((JavaType.Parameterized) fullType.get(0)).getTypeParameters().size() > 1) {
-                                type2 = ((JavaType.Class)((JavaType.Parameterized) fullType.get(0)).getTypeParameters().get(1)).getClassName();
-                            }
-                            genType = ((JavaType.Parameterized) fullType.get(0)).getClassName();
-                        } else {
-                            genType = ((JavaType.Class)fullType.get(0)).getClassName();
-                        }
-                    } catch (ClassCastException e) { // OpenRewrite has a bug where parameterized new-classes contained in method arguments can't be parsed, so extract type information using String manipulation instead
-                        genType = visitedNewClass.getClazz().toString().split("<")[1];
-                        if (visitedNewClass.getClazz().toString().contains(",")) {
-                            type = visitedNewClass.getClazz().toString().split("<")[2].replace(">", "").split(",")[0];
-                            type2 = visitedNewClass.getClazz().toString().split("<")[2].replace(">", "").split(",")[1];
-                        }else {
-                            type = visitedNewClass.getClazz().toString().split("<")[2].replace(">", "");
-                        }
-                    }
+            // The generic type of the TypeReference, e.g. List<String> for TypeReference<List<String>>
+            List<String> typeArguments = new ArrayList<>();
+            String rawType = null;
+            JavaType.Parameterized typeReference = TypeUtils.asParameterized(visitedNewClass.getClazz().getType());
+            if (typeReference != null && typeReference.getTypeParameters().size() == 1) {
+                JavaType genericType = typeReference.getTypeParameters().get(0);
+                rawType = rawTypeName(genericType);
+                if (rawType != null && genericType instanceof JavaType.Parameterized
+                        && !typeArgumentExpressions(((JavaType.Parameterized) genericType).getTypeParameters(), typeArguments)) {
+                    rawType = null;
                 }
-                JavaTemplate methodRawTypeTemplate = JavaTemplate.builder("@Override public Type getRawType() { return " + extractTypeArgument(visitedNewClass.toString()) + ".class; }").build();
-                if (genType!=null){
-                    methodRawTypeTemplate = JavaTemplate.builder("@Override public Type getRawType() { return " + genType + ".class; }").build();
-                }
-                JavaTemplate methodActualTypeTemplate = JavaTemplate.builder("@Override public Type[] getActualTypeArguments() { return new Type[] {}; }").build();
-                if (type != null){
-                    methodActualTypeTemplate = JavaTemplate.builder("@Override public Type[] getActualTypeArguments() { return new Type[] {  " + type + ".class  }; }").build();
+            }
+            if (rawType == null) {
+                // OpenRewrite does not always attribute parameterized new-classes contained in method arguments,
+                // so read the generic type from the LST instead
+                List<Expression> typeParameters = ((J.ParameterizedType) visitedNewClass.getClazz()).getTypeParameters();
+                if (typeParameters == null || typeParameters.size() != 1) {
+                    return visitedNewClass;
                 }
-                JavaTemplate methodOwnerTypeTemplate = JavaTemplate.builder("@Override public Type getOwnerType() { return null; }").build();
-                if (type2 != null){ // If TypeReference uses Map<T,V> or any other class with the same structure like Foo<T,V>
-                    methodActualTypeTemplate = JavaTemplate.builder("@Override public Type[] getActualTypeArguments() { return new Type[] {  " + type + ".class," + type2 + ".class  }; }").build();
+                typeArguments.clear();
+                Expression genericType = typeParameters.get(0);
+                if (genericType instanceof J.ParameterizedType) {
+                    rawType = ((J.ParameterizedType) genericType).getClazz().printTrimmed(getCursor());
+                    List<Expression> nestedTypeParameters = ((J.ParameterizedType) genericType).getTypeParameters();
+                    if (nestedTypeParameters != null) {
+                        for (Expression typeParameter : nestedTypeParameters) {
+                            typeArguments.add(typeExpression(typeParameter));
+                        }
+                    }
+                } else {
+                    rawType = genericType.printTrimmed(getCursor());
                 }
-                // Apply Templates (add methods to body)
+            }
 
-                visitedNewClass = visitedNewClass.withBody(methodRawTypeTemplate.apply(new Cursor(getCursor(), visitedNewClass.getBody()),
-                        visitedNewClass.getBody().getCoordinates().lastStatement()));
-                visitedNewClass = visitedNewClass.withBody(methodActualTypeTemplate.apply(new Cursor(getCursor(), visitedNewClass.getBody()),
-                        visitedNewClass.getBody().getCoordinates().lastStatement()));
-                visitedNewClass = visitedNewClass.withBody(methodOwnerTypeTemplate.apply(new Cursor(getCursor(), visitedNewClass.getBody()),
-                        visitedNewClass.getBody().getCoordinates().lastStatement()));
+            // Apply Templates (add methods to body)
+            visitedNewClass = visitedNewClass.withBody(recorder.apply(RAW_TYPE_TEMPLATE, new Cursor(getCursor(), visitedNewClass.getBody()),
+                    visitedNewClass.getBody().getCoordinates().lastStatement(), rawType));
+            visitedNewClass = visitedNewClass.withBody(recorder.apply(ACTUAL_TYPE_ARGUMENTS_TEMPLATE, new Cursor(getCursor(), visitedNewClass.getBody()),
+                    visitedNewClass.getBody().getCoordinates().lastStatement(), String.join(", ", typeArguments)));
+            visitedNewClass = visitedNewClass.withBody(recorder.apply(OWNER_TYPE_TEMPLATE, new Cursor(getCursor(), visitedNewClass.getBody()),
+                    visitedNewClass.getBody().getCoordinates().lastStatement()));
 
-                visitedNewClass = visitedNewClass.withClazz(TypeTree.build(" ParameterizedType")); // Replace TypeReference with Type
+            visitedNewClass = visitedNewClass.withClazz(TypeTree.build(" ParameterizedType")); // Replace TypeReference with Type
+            return visitedNewClass;
+        }
 
+        /**
+         * Method to get the name used in a class literal for an attributed type
+         * @return The class name, or null if the type is not attributed
+         */
+        private @Nullable String rawTypeName(JavaType type) {
+            if (type instanceof JavaType.Primitive) {
+                return ((JavaType.Primitive) type).getKeyword();
             }
-            return visitedNewClass;
+            if (type instanceof JavaType.Array) {
+                String elementType = rawTypeName(((JavaType.Array) type).getElemType());
+                return elementType == null ? null : elementType + "[]";
+            }
+            if (type instanceof JavaType.GenericTypeVariable) {
+                List<JavaType> bounds = ((JavaType.GenericTypeVariable) type).getBounds();
+                return bounds.isEmpty() ? "Object" : rawTypeName(bounds.get(0));
+            }
+            JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(type);
+            if (fullyQualified == null || fullyQualified instanceof JavaType.Unknown) {
+                return null;
+            }
+            return fullyQualified.getClassName();
         }
 
-        private final Set<String> importSet = new HashSet<>();
+        /**
+         * Method to write the Type expressions for attributed type arguments
+         * @return False if any of the type arguments is not attributed
+         */
+        private boolean typeArgumentExpressions(List<JavaType> types, List<String> expressions) {
+            for (JavaType type : types) {
+                String rawType = rawTypeName(type);
+                if (rawType == null) {
+                    return false;
+                }
+                if (type instanceof JavaType.Parameterized) {
+                    List<String> nestedExpressions = new ArrayList<>();
+                    if (!typeArgumentExpressions(((JavaType.Parameterized) type).getTypeParameters(), nestedExpressions)) {
+                        return false;
+                    }
+                    expressions.add(parameterizedTypeExpression(rawType, nestedExpressions));
+                } else {
+                    expressions.add(rawType + ".class");
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Method to write the Type expression for a type argument read from the LST
+         */
+        private String typeExpression(J typeParameter) {
+            if (typeParameter instanceof J.ParameterizedType) {
+                J.ParameterizedType parameterized = (J.ParameterizedType) typeParameter;
+                List<String> nestedExpressions = new ArrayList<>();
+                if (parameterized.getTypeParameters() != null) {
+                    for (Expression nestedTypeParameter : parameterized.getTypeParameters()) {
+                        nestedExpressions.add(typeExpression(nestedTypeParameter));
+                    }
+                }
+                return parameterizedTypeExpression(parameterized.getClazz().printTrimmed(getCursor()), nestedExpressions);
+            }
+            if (typeParameter instanceof J.Wildcard) {
+                J.Wildcard wildcard = (J.Wildcard) typeParameter;
+                if (wildcard.getBound() == J.Wildcard.Bound.Extends && wildcard.getBoundedType() != null) {
+                    return typeExpression(wildcard.getBoundedType());
+                }
+                return "Object.class";
+            }
+            return typeParameter.printTrimmed(getCursor()) + ".class";
+        }
+
+        /**
+         * Method to write an anonymous ParameterizedType for a nested generic type argument
+         */
+        private String parameterizedTypeExpression(String rawType, List<String> typeArguments) {
+            return "new ParameterizedType() { " +
+                    "@Override public Type getRawType() { return " + rawType + ".class; } " +
+                    "@Override public Type[] getActualTypeArguments() { return new Type[] { " + String.join(", ", typeArguments) + " }; } " +
+                    "@Override public Type getOwnerType() { return null; } }";
+        }
+
+        /**
+         * Method to get the imports already seen in the current compilation unit.
+         * The set lives on the compilation unit cursor so that it is discarded with it.
+         */
+        private Set<String> importSet() {
+            return getCursor().dropParentUntil(J.CompilationUnit.class::isInstance)
+                    .computeMessageIfAbsent(IMPORT_SET, key -> new HashSet<>());
+        }
 
         @Override
         public J.@NotNull Import visitImport(J.@NotNull Import importStmt, @NotNull ExecutionContext ctx) {
             String importQualid = importStmt.getQualid().toString();
 
             // Add the import to the set and check if it already exists
-            boolean isNewImport = importSet.add(importQualid);
+            boolean isNewImport = importSet().add(importQualid);
 
             // If the import is for ParameterizedType, and it's already in the set, skip it
             if (importQualid.trim().equals("java.lang.reflect.ParameterizedType") && !isNewImport) {
@@ -152,14 +310,14 @@ public class TypeReferenceRecipe extends Recipe {
 
             // Remove the import statement for TypeReference and add import for ParameterizedType
             if (importQualid.equals("com.azure.core.util.serializer.TypeReference")) {
-                importSet.add("java.lang.reflect.ParameterizedType");
+                importSet().add("java.lang.reflect.ParameterizedType");
                 return importStmt.withQualid(TypeTree.build(" java.lang.reflect.ParameterizedType"));
             }
 
             // Change BinaryData import to a new package
             if (importQualid.equals("com.azure.core.util.BinaryData")) {
-                importSet.add("io.clientcore.core.util.binarydata.BinaryData");
-                return importStmt.withQualid(TypeTree.build(" io.clientcore.core.util.binarydata.BinaryData"));
+                importSet().add("io.clientcore.core.util.binarydata.BinaryData");
+                return importStmt.withQualid(ClientCoreTypes.build(" io.clientcore.core.util.binarydata.BinaryData"));
             }
 
             // Return other imports normally
@@ -171,8 +329,8 @@ public class TypeReferenceRecipe extends Recipe {
         @Override
         public J.@NotNull VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext executionContext) {
             J.VariableDeclarations visitedDeclarations = super.visitVariableDeclarations(multiVariable, executionContext);
-            if (visitedDeclarations.toString().contains("TypeReference")
-                    && visitedDeclarations.toString().contains("ParameterizedType")) {
+            if (isTypeReferenceType(visitedDeclarations.getTypeExpression())
+                    && isConvertedTypeReference(visitedDeclarations)) {
                 visitedDeclarations = visitedDeclarations.withTypeExpression(TypeTree.build(" Type"));
                 return visitedDeclarations;
             }
@@ -185,9 +343,8 @@ public class TypeReferenceRecipe extends Recipe {
         @Override
         public J.@NotNull FieldAccess visitFieldAccess(J.@NotNull FieldAccess fieldAccess, @NotNull ExecutionContext ctx) {
             J.FieldAccess fa = super.visitFieldAccess(fieldAccess, ctx);
-            String fullyQualified = fa.getTarget() + "." + fa.getSimpleName();
-            if (fullyQualified.equals("com.azure.core.util.BinaryData")) {
-                return TypeTree.build(" io.clientcore.core.util.binarydata.BinaryData");
+            if (BINARY_DATA.matches(fa)) {
+                return ClientCoreTypes.build(" io.clientcore.core.util.binarydata.BinaryData");
             }
             return fa;
         }
@@ -197,6 +354,10 @@ public class TypeReferenceRecipe extends Recipe {
          */
         @Override
         public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
+            if (hoistToConstants) {
+                // Move TypeReference instances into constants first so that they are converted in place
+                cu = (J.CompilationUnit) new HoistTypeReferenceVisitor(recorder).visitNonNull(cu, executionContext, getCursor().getParentOrThrow());
+            }
             J.CompilationUnit visitedCompilationUnit = super.visitCompilationUnit(cu, executionContext);
             J.Import newImport = null;
             boolean addTypeImport = false;
@@ -218,19 +379,266 @@ public class TypeReferenceRecipe extends Recipe {
             }
             return visitedCompilationUnit;
         }
+    }
+
+
+    /**
+     * Method to check if a tree is an anonymous TypeReference instance, e.g. new TypeReference<List<String>>() { }
+     */
+    private static boolean isTypeReference(@Nullable J tree) {
+        if (!(tree instanceof J.NewClass)) {
+            return false;
+        }
+        J.NewClass newClass = (J.NewClass) tree;
+        return newClass.getBody() != null && newClass.getClazz() instanceof J.ParameterizedType
+                && isTypeReferenceType(newClass.getClazz());
+    }
 
-        public String extractTypeArgument(String text) {
-            // Find the start and end of the type argument
-            int startIndex = text.indexOf('<');
-            int endIndex = text.indexOf('>', startIndex);
+    /**
+     * Method to check if a type tree is attributed to com.azure.core.util.serializer.TypeReference, e.g. TypeReference<String>
+     */
+    private static boolean isTypeReferenceType(@Nullable J typeTree) {
+        return typeTree instanceof TypeTree && TypeUtils.isOfClassType(((TypeTree) typeTree).getType(), TYPE_REFERENCE);
+    }
 
-            if (startIndex == -1 || endIndex == -1) {
-                return null; // If '<' or '>' not found, return null
+    /**
+     * Method to check if a declaration has a variable initialized with a converted ParameterizedType instance
+     */
+    private static boolean isConvertedTypeReference(J.VariableDeclarations declarations) {
+        for (J.VariableDeclarations.NamedVariable variable : declarations.getVariables()) {
+            Expression initializer = variable.getInitializer();
+            if (initializer instanceof J.NewClass && isNamed(((J.NewClass) initializer).getClazz(), "ParameterizedType")) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            // Extract the substring between the angle brackets
-            return text.substring(startIndex + 1, endIndex).trim();
+    /**
+     * Method to check the simple name of a type tree, whether or not it is fully qualified
+     */
+    private static boolean isNamed(@Nullable J typeTree, String simpleName) {
+        if (typeTree instanceof J.Identifier) {
+            return ((J.Identifier) typeTree).getSimpleName().equals(simpleName);
         }
+        return typeTree instanceof J.FieldAccess && ((J.FieldAccess) typeTree).getSimpleName().equals(simpleName);
     }
 
+    /**
+     * Visitor to replace TypeReference instances created at call sites with a private static final constant
+     * of the enclosing class, adding one constant per distinct generic type.
+     */
+    private static class HoistTypeReferenceVisitor extends JavaVisitor<ExecutionContext> {
+
+        private static final String CONSTANTS = "TYPE_REFERENCE_CONSTANTS";
+        private static final String FIELD_NAMES = "FIELD_NAMES";
+        private static final String HOISTED = "HOISTED_TYPE_REFERENCES";
+
+        private static final JavaTemplate CONSTANT_TEMPLATE = JavaTemplate.builder("private static final Type #{} = null;").build();
+
+        private final RecipeMetrics.Recorder recorder;
+
+        HoistTypeReferenceVisitor(RecipeMetrics.Recorder recorder) {
+            this.recorder = recorder;
+        }
+
+        @Override
+        public @Nullable J preVisit(J tree, ExecutionContext ctx) {
+            recorder.visited(tree);
+            return super.preVisit(tree, ctx);
+        }
+
+        /**
+         * Method to collect the existing TypeReference constants of a class and add the hoisted ones
+         */
+        @Override
+        public J visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            if (!canDeclareConstants(classDecl)) {
+                return super.visitClassDeclaration(classDecl, ctx);
+            }
+            // Generic type of each TypeReference constant to the constant name
+            Map<String, String> constants = new HashMap<>();
+            Set<String> fieldNames = new HashSet<>();
+            for (Statement statement : classDecl.getBody().getStatements()) {
+                if (!(statement instanceof J.VariableDeclarations)) {
+                    continue;
+                }
+                J.VariableDeclarations field = (J.VariableDeclarations) statement;
+                for (J.VariableDeclarations.NamedVariable variable : field.getVariables()) {
+                    fieldNames.add(variable.getSimpleName());
+                }
+                if (isConstant(field) && field.getVariables().size() == 1
+                        && isTypeReference(field.getVariables().get(0).getInitializer())) {
+                    J.VariableDeclarations.NamedVariable variable = field.getVariables().get(0);
+                    constants.putIfAbsent(genericType((J.NewClass) variable.getInitializer()), variable.getSimpleName());
+                }
+            }
+            getCursor().putMessage(CONSTANTS, constants);
+            getCursor().putMessage(FIELD_NAMES, fieldNames);
+            getCursor().putMessage(HOISTED, new LinkedHashMap<String, J.NewClass>());
+
+            J.ClassDeclaration c = (J.ClassDeclaration) super.visitClassDeclaration(classDecl, ctx);
+
+            Map<String, J.NewClass> hoisted = getCursor().getMessage(HOISTED);
+            List<Map.Entry<String, J.NewClass>> newConstants = new ArrayList<>(hoisted.entrySet());
+            if (newConstants.isEmpty()) {
+                return c;
+            }
+            // The constants of an enum must come first, so the fields are added before the member following them.
+            // Hoisting is skipped within the enum constants, so an enum with hoisted fields has such a member.
+            int first = c.getBody().getStatements().get(0) instanceof J.EnumValueSet ? 1 : 0;
+            // Indent the constants like the members they are added before
+            Space prefix = c.getBody().getStatements().get(first).getPrefix();
+            // Added as the first member one by one, so add them in reverse to keep their order
+            Collections.reverse(newConstants);
+            for (Map.Entry<String, J.NewClass> newConstant : newConstants) {
+                JavaCoordinates coordinates = first == 0 ? c.getBody().getCoordinates().firstStatement()
+                        : c.getBody().getStatements().get(first).getCoordinates().before();
+                c = recorder.apply(CONSTANT_TEMPLATE, updateCursor(c), coordinates, newConstant.getKey());
+                J.VariableDeclarations field = ((J.VariableDeclarations) c.getBody().getStatements().get(first)).withPrefix(prefix);
+                String whitespace = field.getPrefix().getWhitespace();
+                // Close the anonymous class at the indentation of the constant
+                J.NewClass initializer = newConstant.getValue().withBody(newConstant.getValue().getBody()
+                        .withEnd(Space.format("\n" + whitespace.substring(whitespace.lastIndexOf('\n') + 1))));
+                J.VariableDeclarations constant = field.withVariables(ListUtils.map(field.getVariables(),
+                        variable -> variable.withInitializer(initializer.withPrefix(Space.SINGLE_SPACE))));
+                int index = first;
+                c = c.withBody(c.getBody().withStatements(ListUtils.map(c.getBody().getStatements(),
+                        (i, statement) -> i == index ? constant : statement)));
+            }
+            return c;
+        }
+
+        /**
+         * Method to replace a TypeReference instance with a reference to the constant for its generic type
+         */
+        @Override
+        public J visitNewClass(J.NewClass newClass, ExecutionContext ctx) {
+            J j = super.visitNewClass(newClass, ctx);
+            if (!isTypeReference(j) || isConstantInitializer()) {
+                return j;
+            }
+            J.NewClass n = (J.NewClass) j;
+            Cursor classCursor = getCursor().dropParentUntil(it -> it instanceof J.ClassDeclaration || it instanceof J.EnumValueSet);
+            if (classCursor.getValue() instanceof J.EnumValueSet) {
+                // The enum constants are initialized before the static fields of their enum
+                return n;
+            }
+            Map<String, String> constants = classCursor.getMessage(CONSTANTS);
+            if (constants == null) {
+                // The enclosing class cannot declare static constants
+                return n;
+            }
+            String genericType = genericType(n);
+            if (usesTypeVariable(genericType)) {
+                return n;
+            }
+            String name = constants.get(genericType);
+            if (name == null) {
+                Set<String> fieldNames = classCursor.getMessage(FIELD_NAMES);
+                name = constantName(genericType, fieldNames);
+                constants.put(genericType, name);
+                fieldNames.add(name);
+                classCursor.<Map<String, J.NewClass>>getMessage(HOISTED).put(name, n);
+            }
+            J.Identifier reference = TypeTree.build(name);
+            return reference.withPrefix(n.getPrefix());
+        }
+
+        /**
+         * Method to check if a class can declare private static fields, which is not the case for
+         * interfaces, inner classes and local classes
+         */
+        private boolean canDeclareConstants(J.ClassDeclaration classDecl) {
+            if (classDecl.getKind() == J.ClassDeclaration.Kind.Type.Interface
+                    || classDecl.getKind() == J.ClassDeclaration.Kind.Type.Annotation) {
+                return false;
+            }
+            Cursor parent = getCursor().getParentTreeCursor();
+            if (parent.getValue() instanceof JavaSourceFile) {
+                return true;
+            }
+            return parent.getValue() instanceof J.Block
+                    && parent.getParentTreeCursor().getValue() instanceof J.ClassDeclaration
+                    && (classDecl.hasModifier(J.Modifier.Type.Static) || classDecl.getKind() == J.ClassDeclaration.Kind.Type.Enum);
+        }
+
+        /**
+         * Method to check if the visited TypeReference instance already initializes a static final field
+         */
+        private boolean isConstantInitializer() {
+            Cursor parent = getCursor().getParentTreeCursor();
+            if (!(parent.getValue() instanceof J.VariableDeclarations.NamedVariable)) {
+                return false;
+            }
+            J.VariableDeclarations declarations = parent.getParentTreeCursor().getValue();
+            return isConstant(declarations);
+        }
+
+        /**
+         * Method to check if a generic type refers to a type variable of an enclosing class or method,
+         * which cannot be used from a static field
+         */
+        private boolean usesTypeVariable(String genericType) {
+            Set<String> typeVariables = new HashSet<>();
+            for (Cursor c = getCursor(); c != null; c = c.getParent()) {
+                List<J.TypeParameter> typeParameters = null;
+                if (c.getValue() instanceof J.MethodDeclaration) {
+                    typeParameters = ((J.MethodDeclaration) c.getValue()).getTypeParameters();
+                } else if (c.getValue() instanceof J.ClassDeclaration) {
+                    typeParameters = ((J.ClassDeclaration) c.getValue()).getTypeParameters();
+                }
+                if (typeParameters != null) {
+                    for (J.TypeParameter typeParameter : typeParameters) {
+                        typeVariables.add(typeParameter.getName().toString().trim());
+                    }
+                }
+            }
+            for (String name : genericType.split("[^\\w$]+")) {
+                if (typeVariables.contains(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isConstant(J.VariableDeclarations declarations) {
+            return declarations.hasModifier(J.Modifier.Type.Static) && declarations.hasModifier(J.Modifier.Type.Final);
+        }
+
+        /**
+         * Method to get the generic type of a TypeReference instance without whitespace, e.g. List<String>
+         */
+        private static String genericType(J.NewClass newClass) {
+            List<Expression> typeParameters = ((J.ParameterizedType) newClass.getClazz()).getTypeParameters();
+            StringBuilder genericType = new StringBuilder();
+            if (typeParameters != null) {
+                for (Expression typeParameter : typeParameters) {
+                    if (genericType.length() > 0) {
+                        genericType.append(',');
+                    }
+                    genericType.append(typeParameter.toString().replaceAll("\\s", ""));
+                }
+            }
+            return genericType.toString();
+        }
+
+        /**
+         * Method to name a constant after its generic type, e.g. List<TranslatedTextItem> gives
+         * TYPE_REFERENCE_LIST_TRANSLATED_TEXT_ITEM
+         */
+        private static String constantName(String genericType, Set<String> fieldNames) {
+            StringBuilder name = new StringBuilder("TYPE_REFERENCE");
+            for (String part : genericType.split("[^A-Za-z0-9]+")) {
+                if (!part.isEmpty()) {
+                    name.append('_').append(part.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase());
+                }
+            }
+            String candidate = name.toString();
+            for (int i = 2; fieldNames.contains(candidate); i++) {
+                candidate = name + "_" + i;
+            }
+            return candidate;
+        }
+    }
 }
@@ -0,0 +1,560 @@
+package com.azure.recipes.core.runner;
+
+import com.azure.recipes.core.v2.AddTryCatchToMethodCallRecipe;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.config.Environment;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * MigrationRunnerTest is used to test out the runner that parses and migrates a source tree in parallel.
+ */
+public class MigrationRunnerTest {
+
+    @TempDir
+    Path baseDir;
+
+    /**
+     * This test method is used to make sure that the runner migrates the sources of every module and
+     * gives the same results, in the same order, whatever the parallelism
+     */
+    @Test
+    void testParallelRunMatchesSingleThreadedRun() throws IOException {
+        writeModules();
+        writeSource("module-a/target/generated-sources/com/example/Generated.java", 0);
+
+        List<FileChange> parallel = new MigrationRunner(RunnerOptions.builder().parallelism(4).build()).run(baseDir);
+        List<FileChange> sequential = new MigrationRunner(RunnerOptions.builder().parallelism(1).build()).run(baseDir);
+
+        assertThat(paths(parallel)).hasSize(8).isSorted().isEqualTo(paths(sequential));
+        assertThat(parallel.get(0).getAfter()).contains("import io.clientcore.core.http.models.Response;");
+        assertThat(parallel.get(0).getRecipes())
+                .contains("com.azure.recipes.core.v2.ResponseRecipe")
+                .doesNotContain("com.azure.recipes.core.v2.FusedRecipe");
+        assertThat(parallel).isEqualTo(sequential);
+    }
+
+    /**
+     * This test method is used to make sure that a second run reads every result from the cache and
+     * that the module of a changed source file is migrated again
+     */
+    @Test
+    void testCachedRunSkipsUnchangedFiles() throws IOException {
+        writeModules();
+        Files.write(baseDir.resolve("module-a/src/main/java/com/example/Unchanged.java"),
+                "package com.example;\npublic class Unchanged {\n}".getBytes());
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder()
+                .cacheDirectory(Paths.get(RunnerOptions.DEFAULT_CACHE_DIRECTORY))
+                .build());
+
+        List<FileChange> first = runner.run(baseDir);
+        List<FileChange> second = runner.run(baseDir);
+
+        assertThat(first).hasSize(8).noneMatch(FileChange::isCached);
+        assertThat(second).hasSize(8).allMatch(FileChange::isCached);
+        assertThat(paths(second)).isEqualTo(paths(first));
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(second.get(i).getDiff()).isEqualTo(first.get(i).getDiff());
+            assertThat(second.get(i).getAfter()).isEqualTo(first.get(i).getAfter());
+        }
+
+        writeSource("module-b/src/main/java/com/example/Testing0.java", 10);
+        List<FileChange> third = runner.run(baseDir);
+
+        assertThat(third).filteredOn(change -> !change.isCached())
+                .extracting(FileChange::getSourcePath)
+                .allMatch(sourcePath -> sourcePath.startsWith("module-b/"))
+                .contains("module-b/src/main/java/com/example/Testing0.java");
+        assertThat(third).filteredOn(FileChange::isCached)
+                .extracting(FileChange::getSourcePath)
+                .allMatch(sourcePath -> sourcePath.startsWith("module-a/"))
+                .hasSize(4);
+    }
+
+    /**
+     * This test method is used to make sure that LSTs loaded from the Smile cache keep their types, so that
+     * the recipes make the same changes as on freshly parsed sources
+     */
+    @Test
+    void testCachedLstsGiveSameChanges() throws IOException {
+        writeModules();
+        Path cacheDirectory = baseDir.resolve(RunnerOptions.DEFAULT_CACHE_DIRECTORY);
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder()
+                .cacheDirectory(cacheDirectory)
+                .cacheLsts(true)
+                .build());
+
+        List<FileChange> parsed = runner.run(baseDir);
+        try (Stream<Path> files = Files.list(cacheDirectory.resolve("lst"))) {
+            assertThat(files.filter(file -> file.toString().endsWith(".smile"))).hasSize(2);
+        }
+        deleteResultCache(cacheDirectory);
+        List<FileChange> loaded = runner.run(baseDir);
+
+        assertThat(loaded).hasSize(8).isEqualTo(parsed);
+    }
+
+    /**
+     * This test method is used to make sure that the prefilter has no false negatives on the sample modules:
+     * every file the recipe changes passes it, and a prefiltered run makes the same changes
+     */
+    @Test
+    void testPrefilterHasNoFalseNegativesOnSamples() throws IOException {
+        Path sampleDir = Paths.get("../rewrite-sample").toAbsolutePath().normalize();
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder().build());
+        Prefilter prefilter = Prefilter.of(Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(RunnerOptions.DEFAULT_RECIPE));
+
+        List<FileChange> changes = runner.run(sampleDir);
+
+        assertThat(prefilter).isNotNull();
+        assertThat(prefilter.getTokens()).contains("toObject", "translate", "retryOptions");
+        assertThat(changes).isNotEmpty();
+        for (FileChange change : changes) {
+            assertThat(prefilter.matches(sampleDir.resolve(change.getSourcePath())))
+                    .as("Prefilter skips changed file %s", change.getSourcePath())
+                    .isTrue();
+        }
+        assertThat(new MigrationRunner(RunnerOptions.builder().prefilter(true).build()).run(sampleDir))
+                .isEqualTo(changes);
+    }
+
+    /**
+     * This test method is used to make sure that only the sources changed since a git ref, committed or not,
+     * are migrated
+     */
+    @Test
+    void testSinceRefMigratesChangedSourcesOnly() throws IOException, InterruptedException {
+        writeModules();
+        git("init", "-q");
+        git("add", ".");
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "Initial commit");
+        writeSource("module-a/src/main/java/com/example/Testing1.java", 11);
+        writeSource("module-b/src/main/java/com/example/Testing9.java", 9);
+
+        List<FileChange> changes = new MigrationRunner(RunnerOptions.builder().sinceRef("HEAD").build()).run(baseDir);
+
+        assertThat(paths(changes)).containsExactly(
+                "module-a/src/main/java/com/example/Testing1.java",
+                "module-b/src/main/java/com/example/Testing9.java");
+    }
+
+    /**
+     * This test method is used to make sure that a ref git would read as an option is rejected
+     * before git is run
+     */
+    @Test
+    void testSinceRefStartingWithDashRejected() throws IOException, InterruptedException {
+        writeModules();
+        git("init", "-q");
+        Path output = baseDir.resolve("output.txt");
+
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder().sinceRef("--output=" + output).build());
+
+        assertThatThrownBy(() -> runner.run(baseDir))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--output=");
+        assertThat(output).doesNotExist();
+    }
+
+    /**
+     * This test method is used to make sure that the changes streamed to the patch, JSON lines and SARIF outputs
+     * are the changes returned by a buffered run
+     */
+    @Test
+    void testStreamedOutputsMatchBufferedRun() throws IOException {
+        writeModules();
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder().fused(false).build());
+        List<FileChange> changes = runner.run(baseDir);
+        Path output = baseDir.resolve("target/rewrite");
+
+        int changeCount;
+        try (PatchWriter patch = new PatchWriter(output.resolve("rewrite.patch"));
+             JsonLinesReport jsonLines = new JsonLinesReport(output.resolve("changes.jsonl"));
+             SarifReport sarif = new SarifReport(output.resolve("changes.sarif"))) {
+            changeCount = runner.run(baseDir, MigrationRunner.findSources(baseDir), patch.andThen(jsonLines).andThen(sarif));
+        }
+
+        assertThat(changeCount).isEqualTo(changes.size());
+        String patch = new String(Files.readAllBytes(output.resolve("rewrite.patch")), StandardCharsets.UTF_8);
+        int hunkCount = 0;
+        for (FileChange change : changes) {
+            assertThat(patch).contains(change.getDiff());
+            assertThat(change.getRecipes()).contains("com.azure.recipes.core.v2.ResponseRecipe");
+            assertThat(change.lineRanges()).hasSize(1).first().extracting(LineRange::getStartLine).isEqualTo(1);
+            hunkCount += change.lineRanges().size();
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> lines = Files.readAllLines(output.resolve("changes.jsonl"));
+        assertThat(lines).hasSize(hunkCount);
+        assertThat(mapper.readTree(lines.get(0)).get("recipes").toString()).contains("ResponseRecipe");
+        JsonNode sarif = mapper.readTree(output.resolve("changes.sarif").toFile());
+        assertThat(sarif.get("version").asText()).isEqualTo("2.1.0");
+        assertThat(sarif.get("runs").get(0).get("results")).hasSize(hunkCount);
+    }
+
+    /**
+     * This test method is used to make sure that a runner keeping its parsers gives the same changes on every run,
+     * so that the sources of a run are not seen again by the kept parsers
+     */
+    @Test
+    void testReusedParsersGiveSameChangesOnEveryRun() throws IOException {
+        writeModules();
+        List<FileChange> changes = new MigrationRunner(RunnerOptions.builder().parallelism(2).build()).run(baseDir);
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder().parallelism(2).reuseParsers(true).build());
+
+        assertThat(runner.run(baseDir)).isEqualTo(changes);
+        assertThat(runner.run(baseDir)).isEqualTo(changes);
+    }
+
+    /**
+     * This test method is used to make sure that a heap budget splits modules into batches whose estimated LSTs
+     * fit in it, without changing the results
+     */
+    @Test
+    void testHeapBudgetSplitsModulesIntoBatches() throws IOException {
+        writeModules();
+        List<Path> module = MigrationRunner.findSources(baseDir.resolve("module-a"));
+        long lstBytes = Files.size(module.get(0)) * MigrationRunner.LST_BYTES_PER_SOURCE_BYTE;
+
+        assertThat(MigrationRunner.split(module, 0, 2 * lstBytes)).extracting(List::size).containsExactly(2, 2);
+        assertThat(MigrationRunner.split(module, 3, 0)).extracting(List::size).containsExactly(3, 1);
+        assertThat(MigrationRunner.split(module, 0, lstBytes / 2)).extracting(List::size).containsExactly(1, 1, 1, 1);
+
+        List<FileChange> unbounded = new MigrationRunner(RunnerOptions.builder().parallelism(2).build()).run(baseDir);
+        List<FileChange> bounded = new MigrationRunner(RunnerOptions.builder()
+                .parallelism(2)
+                .heapBudget(2 * lstBytes)
+                .build()).run(baseDir);
+        assertThat(bounded).isEqualTo(unbounded);
+    }
+
+    /**
+     * This test method is used to make sure that the patch merged from the worker JVMs of a sharded run is the
+     * patch of a run in one JVM
+     */
+    @Test
+    void testShardedRunMatchesSingleRun() throws IOException {
+        writeModules();
+        Path output = baseDir.resolve("target/rewrite");
+        try (PatchWriter patch = new PatchWriter(output.resolve("single.patch"))) {
+            new MigrationRunner(RunnerOptions.builder().build()).run(baseDir).forEach(patch);
+        }
+
+        int changeCount = new ShardedMigration(RunnerOptions.builder().parallelism(2).build(), 2, Collections.emptyList())
+                .run(baseDir, output.resolve("sharded.patch"));
+
+        assertThat(changeCount).isEqualTo(8);
+        assertThat(Files.readAllBytes(output.resolve("sharded.patch"))).isEqualTo(Files.readAllBytes(output.resolve("single.patch")));
+        assertThat(ShardedMigration.shard(baseDir, MigrationRunner.findSources(baseDir), 2).stream().mapToInt(List::size).sum())
+                .isEqualTo(8);
+    }
+
+    /**
+     * This test method is used to make sure that cached results are not reused when a recipe option, the classpath
+     * or a runner option the results depend on changes
+     */
+    @Test
+    void testRecipeKeyDependsOnOptions() {
+        String pattern = "com.azure.core.util.BinaryData toObject(..)";
+        String exception = "java.io.IOException";
+        String catchTemplate = "catch (IOException e) { throw new RuntimeException(e); }";
+        AddTryCatchToMethodCallRecipe recipe = new AddTryCatchToMethodCallRecipe(pattern, catchTemplate, exception, false);
+        RunnerOptions options = RunnerOptions.builder().build();
+        List<Path> classpath = Collections.emptyList();
+
+        String key = ResultCache.recipeKey(recipe, options, classpath);
+
+        assertThat(ResultCache.recipeKey(new AddTryCatchToMethodCallRecipe(pattern, catchTemplate, exception, false), options, classpath))
+                .isEqualTo(key);
+        assertThat(ResultCache.recipeKey(new AddTryCatchToMethodCallRecipe(pattern,
+                "catch (IOException e) { throw new UncheckedIOException(e); }", exception, false), options, classpath))
+                .isNotEqualTo(key);
+        assertThat(ResultCache.recipeKey(recipe, options, Collections.singletonList(Paths.get("lib/module.jar"))))
+                .isNotEqualTo(key);
+        assertThat(ResultCache.recipeKey(recipe, options.toBuilder().fused(false).build(), classpath)).isNotEqualTo(key);
+        assertThat(ResultCache.recipeKey(recipe, options.toBuilder().prefilter(true).build(), classpath)).isNotEqualTo(key);
+        assertThat(ResultCache.recipeKey(recipe, options.toBuilder().sinceRef("HEAD").build(), classpath)).isNotEqualTo(key);
+        assertThat(ResultCache.recipeKey(recipe, options.toBuilder().parseBatchSize(10).build(), classpath)).isNotEqualTo(key);
+    }
+
+    /**
+     * This test method is used to make sure that a source file missing from the result cache is parsed with the
+     * other sources of its module, so that it sees the types of the sources read from the cache
+     */
+    @Test
+    void testCacheMissAttributedWithCachedSources() throws IOException {
+        writeSource("module-a/src/main/java/com/example/Helper.java", "package com.example;\n" +
+                "import com.azure.ai.translation.text.TextTranslationClientBuilder;\n" +
+                "public class Helper {\n" +
+                "    static TextTranslationClientBuilder builder() {\n" +
+                "        return new TextTranslationClientBuilder();\n" +
+                "    }\n" +
+                "}");
+        writeUser("configure");
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder()
+                .cacheDirectory(Paths.get(RunnerOptions.DEFAULT_CACHE_DIRECTORY))
+                .build());
+        assertThat(paths(runner.run(baseDir))).containsExactly("module-a/src/main/java/com/example/User.java");
+
+        writeUser("reconfigure");
+        List<FileChange> changes = runner.run(baseDir);
+
+        assertThat(changes).singleElement()
+                .matches(change -> !change.isCached())
+                .extracting(FileChange::getAfter)
+                .asString()
+                .contains("void reconfigure()", "Helper.builder().httpRetryOptions(null);");
+    }
+
+    /**
+     * This test method is used to make sure that the cached result of an unchanged source file is not replayed once
+     * another source of its module changes the types it is attributed with
+     */
+    @Test
+    void testCacheEntryInvalidatedBySiblingChange() throws IOException {
+        writeSource("module-a/src/main/java/com/example/Builder.java", "package com.example;\n" +
+                "public class Builder {\n" +
+                "    public Builder retryOptions(Object retryOptions) {\n" +
+                "        return this;\n" +
+                "    }\n" +
+                "}");
+        writeSource("module-a/src/main/java/com/example/Helper.java", "package com.example;\n" +
+                "public class Helper {\n" +
+                "    static Builder builder() {\n" +
+                "        return new Builder();\n" +
+                "    }\n" +
+                "}");
+        writeUser("configure");
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder()
+                .cacheDirectory(Paths.get(RunnerOptions.DEFAULT_CACHE_DIRECTORY))
+                .build());
+        assertThat(runner.run(baseDir)).isEmpty();
+
+        writeSource("module-a/src/main/java/com/example/Helper.java", "package com.example;\n" +
+                "import com.azure.ai.translation.text.TextTranslationClientBuilder;\n" +
+                "public class Helper {\n" +
+                "    static TextTranslationClientBuilder builder() {\n" +
+                "        return new TextTranslationClientBuilder();\n" +
+                "    }\n" +
+                "}");
+        List<FileChange> changes = runner.run(baseDir);
+
+        assertThat(changes).singleElement()
+                .matches(change -> !change.isCached())
+                .extracting(FileChange::getAfter)
+                .asString()
+                .contains("Helper.builder().httpRetryOptions(null);");
+    }
+
+    /**
+     * This test method is used to make sure that a scanning recipe, which would only scan the source file it is run
+     * over, is rejected whether or not the recipes are fused
+     */
+    @Test
+    void testScanningRecipeRejected() {
+        for (boolean fused : new boolean[] {true, false}) {
+            assertThatThrownBy(() -> new MigrationRunner(RunnerOptions.builder()
+                    .recipeName("com.azure.recipes.core.v2.ResponseRecipe,org.openrewrite.FindCollidingSourceFiles")
+                    .fused(fused)
+                    .build()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("org.openrewrite.FindCollidingSourceFiles is a scanning recipe");
+        }
+    }
+
+    /**
+     * This test method is used to make sure that an error raised by a recipe fails the run, after the changes of
+     * the other source files are passed on, and that the failed source file is not cached
+     */
+    @Test
+    void testRecipeErrorFailsRunAndIsNotCached() throws IOException {
+        writeModules();
+        Files.write(baseDir.resolve("module-a/src/main/java/com/example/Failing.java"),
+                "package com.example;\npublic class Failing {\n}".getBytes());
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder()
+                .recipeName(RunnerOptions.DEFAULT_RECIPE + "," + FailingRecipe.class.getName())
+                .fused(false)
+                .cacheDirectory(Paths.get(RunnerOptions.DEFAULT_CACHE_DIRECTORY))
+                .build());
+
+        for (boolean cached : new boolean[] {false, true}) {
+            List<FileChange> changes = new ArrayList<>();
+            assertThatThrownBy(() -> runner.run(baseDir, MigrationRunner.findSources(baseDir), changes::add))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("module-a/src/main/java/com/example/Failing.java (" + FailingRecipe.class.getName() + ")")
+                    .satisfies(failure -> assertThat(failure.getSuppressed()).isNotEmpty());
+            assertThat(changes).hasSize(8).noneMatch(change -> change.getSourcePath().endsWith("Failing.java"));
+            assertThat(changes).allMatch(change -> change.isCached() == cached);
+        }
+    }
+
+    /**
+     * This test method is used to make sure that the change of every source file is passed to the consumer before
+     * the next source file of its batch is visited
+     */
+    @Test
+    void testChangesStreamedPerSourceFile() throws IOException {
+        writeModules();
+        VisitRecordingRecipe.VISITED.clear();
+        MigrationRunner runner = new MigrationRunner(RunnerOptions.builder()
+                .recipeName(RunnerOptions.DEFAULT_RECIPE + "," + VisitRecordingRecipe.class.getName())
+                .parallelism(1)
+                .build());
+
+        List<Integer> visitedAtChange = new ArrayList<>();
+        int changeCount = runner.run(baseDir, MigrationRunner.findSources(baseDir),
+                change -> visitedAtChange.add(VisitRecordingRecipe.VISITED.size()));
+
+        assertThat(changeCount).isEqualTo(8);
+        assertThat(visitedAtChange).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+    }
+
+    /**
+     * Recipe recording the paths of the source files it visits
+     */
+    public static class VisitRecordingRecipe extends Recipe {
+
+        static final Set<Path> VISITED = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String getDisplayName() {
+            return "Record visited source files";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Records the paths of the source files it visits.";
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new TreeVisitor<Tree, ExecutionContext>() {
+                @Override
+                public Tree visit(Tree tree, ExecutionContext ctx) {
+                    if (tree instanceof SourceFile) {
+                        VISITED.add(((SourceFile) tree).getSourcePath());
+                    }
+                    return tree;
+                }
+            };
+        }
+    }
+
+    /**
+     * Recipe raising an error on the class named Failing
+     */
+    public static class FailingRecipe extends Recipe {
+
+        @Override
+        public String getDisplayName() {
+            return "Fail on Failing";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Raises an error on the class named Failing.";
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new JavaIsoVisitor<ExecutionContext>() {
+                @Override
+                public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                    if (classDecl.getSimpleName().equals("Failing")) {
+                        throw new IllegalStateException("Failing");
+                    }
+                    return super.visitClassDeclaration(classDecl, ctx);
+                }
+            };
+        }
+    }
+
+    private static void deleteResultCache(Path cacheDirectory) throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                if (!file.getParent().getFileName().toString().equals("lst")) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void git(String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        Process process = new ProcessBuilder(command).directory(baseDir.toFile()).inheritIO().start();
+        assertThat(process.waitFor()).isZero();
+    }
+
+    private void writeUser(String method) throws IOException {
+        writeSource("module-a/src/main/java/com/example/User.java", "package com.example;\n" +
+                "public class User {\n" +
+                "    void " + method + "() {\n" +
+                "        Helper.builder().retryOptions(null);\n" +
+                "    }\n" +
+                "}");
+    }
+
+    private void writeModules() throws IOException {
+        for (String module : new String[] {"module-b", "module-a"}) {
+            Files.createDirectories(baseDir.resolve(module));
+            Files.write(baseDir.resolve(module).resolve("pom.xml"), "<project/>".getBytes());
+            for (int i = 0; i < 4; i++) {
+                writeSource(module + "/src/main/java/com/example/Testing" + i + ".java", i);
+            }
+        }
+    }
+
+    private void writeSource(String path, int index) throws IOException {
+        @Language("java") String source = "package com.example;";
+        source += "\nimport com.azure.core.http.rest.Response;";
+        source += "\npublic class Testing" + index + " {";
+        source += "\n  Response<String> response = null;";
+        source += "\n}";
+        writeSource(path, source);
+    }
+
+    private void writeSource(String path, @Language("java") String source) throws IOException {
+        Path file = baseDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes());
+    }
+
+    private static List<String> paths(List<FileChange> changes) {
+        List<String> paths = new ArrayList<>();
+        for (FileChange change : changes) {
+            paths.add(change.getSourcePath());
+        }
+        return paths;
+    }
+}
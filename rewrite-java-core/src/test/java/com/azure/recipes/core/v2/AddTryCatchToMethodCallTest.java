@@ -71,6 +71,62 @@ public class AddTryCatchToMethodCallTest implements RewriteTest {
         );
     }
 
+    /**
+     * Every matching call in a block must be wrapped in the first cycle, so the second cycle makes no changes.
+     */
+    @Test
+    void testMultipleCallsWrappedInOneCycle() {
+        @Language("java") String before = "import com.azure.ai.translation.text.TextTranslationClient;\n" +
+                "import com.azure.ai.translation.text.TextTranslationClientBuilder;\n" +
+                "import com.azure.ai.translation.text.models.InputTextItem;\n" +
+                "import com.azure.ai.translation.text.models.TranslatedTextItem;\n" +
+                "\n" +
+                "import java.util.Arrays;\n" +
+                "import java.util.List;\n" +
+                "\n" +
+                "public class UserClass {\n" +
+                "    public void myMethod() {\n" +
+                "        TextTranslationClient textTranslationClient = new TextTranslationClientBuilder().buildClient();\n" +
+                "        List<InputTextItem> inputTextItems = Arrays.asList(new InputTextItem(\"hello world\"));\n" +
+                "        List<TranslatedTextItem> spanish = textTranslationClient.translate(Arrays.asList(\"es\"), inputTextItems);\n" +
+                "        List<TranslatedTextItem> french = textTranslationClient.translate(Arrays.asList(\"fr\"), inputTextItems);\n" +
+                "    }\n" +
+                "}";
+
+        @Language("java") String after = "import com.azure.ai.translation.text.TextTranslationClient;\n" +
+                "import com.azure.ai.translation.text.TextTranslationClientBuilder;\n" +
+                "import com.azure.ai.translation.text.models.InputTextItem;\n" +
+                "import com.azure.ai.translation.text.models.TranslatedTextItem;\n" +
+                "\n" +
+                "import java.io.IOException;\n" +
+                "import java.util.Arrays;\n" +
+                "import java.util.List;\n" +
+                "\n" +
+                "public class UserClass {\n" +
+                "    public void myMethod() {\n" +
+                "        TextTranslationClient textTranslationClient = new TextTranslationClientBuilder().buildClient();\n" +
+                "        List<InputTextItem> inputTextItems = Arrays.asList(new InputTextItem(\"hello world\"));\n" +
+                "        List<TranslatedTextItem> spanish = null;\n" +
+                "        try {\n" +
+                "            spanish = textTranslationClient.translate(Arrays.asList(\"es\"), inputTextItems);\n" +
+                "        } catch (IOException e) {\n" +
+                "            throw new RuntimeException(e);\n" +
+                "        }\n" +
+                "        List<TranslatedTextItem> french = null;\n" +
+                "        try {\n" +
+                "            french = textTranslationClient.translate(Arrays.asList(\"fr\"), inputTextItems);\n" +
+                "        } catch (IOException e) {\n" +
+                "            throw new RuntimeException(e);\n" +
+                "        }\n" +
+                "    }\n" +
+                "}";
+
+        rewriteRun(
+                spec -> spec.cycles(2).expectedCyclesThatMakeChanges(1),
+                java(before,after)
+        );
+    }
+
     @Test
     void testTextTranslationClientTranslateWithResponse() {
         @Language("java") String before = "import com.azure.ai.translation.text.TextTranslationClient;\n" +
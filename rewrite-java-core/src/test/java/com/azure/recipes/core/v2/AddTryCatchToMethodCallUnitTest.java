@@ -289,4 +289,41 @@ public class AddTryCatchToMethodCallUnitTest implements RewriteTest {
                 java(before,after)
         );
     }
+    @Test
+    void testAddTryCatchNestedCallWrapsEnclosingStatement() {
+        @Language("java") String before =
+                "public class UserClass {\n" +
+                        "    \n" +
+                        "    private String myMethod() {\n" +
+                        "        return \"a\";\n" +
+                        "    }\n" +
+                        "    \n" +
+                        "    private void anotherMethod(){\n" +
+                        "        System.out.println(myMethod());\n" +
+                        "        System.out.println(\"myMethod()\");\n" +
+                        "    }\n" +
+                        "}\n";
+
+        @Language("java") String after = "import java.io.IOException;\n" +
+                "\n" +
+                "public class UserClass {\n" +
+                "    \n" +
+                "    private String myMethod() {\n" +
+                "        return \"a\";\n" +
+                "    }\n" +
+                "    \n" +
+                "    private void anotherMethod(){\n" +
+                "        try {\n" +
+                "            System.out.println(myMethod());\n" +
+                "        } catch (IOException e) {\n" +
+                "            e.printStackTrace();\n" +
+                "        }\n" +
+                "        System.out.println(\"myMethod()\");\n" +
+                "    }\n" +
+                "}\n";
+
+        rewriteRun(
+                java(before,after)
+        );
+    }
 }
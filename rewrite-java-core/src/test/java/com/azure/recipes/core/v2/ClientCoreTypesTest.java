@@ -0,0 +1,37 @@
+package com.azure.recipes.core.v2;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.java.tree.J;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ClientCoreTypesTest is used to test out the type table of the bundled clientcore jar that the recipes
+ * type the trees they create with.
+ */
+public class ClientCoreTypesTest {
+
+    /**
+     * This test method is used to make sure that the type table generated during the build has the full type
+     * of every clientcore type created by the recipes, and that it is loaded only once
+     */
+    @Test
+    void testClientCoreTypeTable() {
+        assertThat(ClientCoreTypes.class.getClassLoader().getResource(ClientCoreTypes.TABLE_RESOURCE)).isNotNull();
+        assertThat(ClientCoreTypes.typeTable()).containsOnlyKeys(ClientCoreTypes.TYPE_NAMES);
+        assertThat(ClientCoreTypes.typeTable().get("io.clientcore.core.http.models.Response").getMethods()).isNotEmpty();
+        assertThat(ClientCoreTypes.typeTable()).isSameAs(ClientCoreTypes.typeTable());
+
+        J.FieldAccess response = ClientCoreTypes.build(" io.clientcore.core.http.models.Response");
+        assertThat(response.getName().getType()).isSameAs(ClientCoreTypes.typeTable().get("io.clientcore.core.http.models.Response"));
+    }
+
+    /**
+     * This test method is used to make sure that a type missing from the type table keeps its shallow type
+     */
+    @Test
+    void testTypeMissingFromTypeTable() {
+        assertThat(ClientCoreTypes.type("io.clientcore.core.util.Missing").getFullyQualifiedName())
+                .isEqualTo("io.clientcore.core.util.Missing");
+    }
+}
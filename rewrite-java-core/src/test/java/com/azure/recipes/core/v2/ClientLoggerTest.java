@@ -31,7 +31,7 @@ public class ClientLoggerTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import io.clientcore.core.util.ClientLogger;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public Testing(){";
         after += "\n    ClientLogger c = new ClientLogger(Testing.class);";
         after += "\n  }";
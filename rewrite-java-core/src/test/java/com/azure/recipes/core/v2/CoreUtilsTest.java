@@ -31,7 +31,7 @@ public class CoreUtilsTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import com.azure.core.v2.util.CoreUtils;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public Testing(){";
         after += "\n    CoreUtils cu = new CoreUtils();";
         after += "\n  }";
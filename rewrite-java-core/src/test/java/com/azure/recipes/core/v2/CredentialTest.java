@@ -37,7 +37,7 @@ public class CredentialTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import io.clientcore.core.credential.KeyCredential;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public Testing(){";
         after += "\n    KeyCredential kc = new KeyCredential(\"<api-key>\");";
         after += "\n  }";
@@ -81,7 +81,7 @@ public class CredentialTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import io.clientcore.core.http.pipeline.KeyCredentialPolicy;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public Testing(){";
         after += "\n    io.clientcore.core.http.pipeline.KeyCredentialPolicy kc = new KeyCredentialPolicy(\"key\", null);";
         after += "\n  }";
@@ -103,7 +103,7 @@ public class CredentialTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import io.clientcore.core.models.traits.KeyCredentialTrait;";
-        after += "\n\npublic class Testing implements KeyCredentialTrait<String> {";
+        after += "\npublic class Testing implements KeyCredentialTrait<String>{";
         after += "\n  public Testing(){";
         after += "\n  }";
         after += "\n}";
@@ -51,7 +51,7 @@ public class ExceptionTypesTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import com.azure.core.v2.exception.ClientAuthenticationException;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public void testMethod() {";
         after += "\n    try {";
         after += "\n      // Some code that may throw ClientAuthenticationException";
@@ -81,7 +81,7 @@ public class ExceptionTypesTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import io.clientcore.core.http.exception.HttpResponseException;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public void testMethod() {";
         after += "\n    try {";
         after += "\n      // Some code that may throw HttpResponseException";
@@ -111,7 +111,7 @@ public class ExceptionTypesTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import com.azure.core.v2.exception.ResourceModifiedException;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public void testMethod() {";
         after += "\n    try {";
         after += "\n      // Some code that may throw ResourceModifiedException";
@@ -141,7 +141,7 @@ public class ExceptionTypesTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import com.azure.core.v2.exception.ResourceNotFoundException;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public void testMethod() {";
         after += "\n    try {";
         after += "\n      // Some code that may throw ResourceNotFoundException";
@@ -0,0 +1,65 @@
+package com.azure.recipes.core.v2;
+
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FieldAccessMatcherTest is used to test out the matcher the recipes use to find fully qualified names
+ * in field access chains.
+ */
+public class FieldAccessMatcherTest {
+
+    private static final FieldAccessMatcher MATCHER = FieldAccessMatcher.of(
+            "com.azure.core.util.Context", "com.azure.core.http.rest.Response", "Context.NONE");
+
+    /**
+     * This test method is used to make sure that only complete chains spelling out a name are matched,
+     * whatever the whitespace inside the chain
+     */
+    @Test
+    void testMatchesCompleteChains() {
+        @Language("java") String source = "import com.azure.core.util.Context;";
+        source += "\nimport com.azure.core.http.rest.Response;";
+        source += "\nimport com.azure.core.util.BinaryData;";
+        source += "\npublic class Testing {";
+        source += "\n  Object none = Context.NONE;";
+        source += "\n  Object spaced = com.azure.core.util . Context.NONE;";
+        source += "\n}";
+
+        List<String> matches = new ArrayList<>();
+        new JavaIsoVisitor<List<String>>() {
+            @Override
+            public J.FieldAccess visitFieldAccess(J.FieldAccess fieldAccess, List<String> found) {
+                String name = MATCHER.match(fieldAccess);
+                if (name != null) {
+                    found.add(name);
+                }
+                return super.visitFieldAccess(fieldAccess, found);
+            }
+        }.visit(parse(source), matches);
+
+        assertThat(matches).containsExactly(
+                "com.azure.core.util.Context",
+                "com.azure.core.http.rest.Response",
+                "Context.NONE",
+                "com.azure.core.util.Context");
+    }
+
+    private static SourceFile parse(String source) {
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        List<SourceFile> sources = JavaParser.fromJavaVersion().build().parse(ctx, source).collect(Collectors.toList());
+        return sources.get(0);
+    }
+}
@@ -0,0 +1,250 @@
+package com.azure.recipes.core.v2;
+
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * FusedRecipeTest is used to test out the recipe that runs the migration composite with fused traversals,
+ * and the ordering of the recipes it runs.
+ */
+public class FusedRecipeTest implements RewriteTest {
+
+    private static final String COMPOSITE = "com.azure.rewrite.java.core.MigrateAzureCoreSamplesToAzureCoreV2";
+
+    /**
+     * This method sets which recipe should be used for testing
+     * @param spec stores settings for testing environment; e.g. which recipes to use for testing
+     */
+    @Override
+    public void defaults(RecipeSpec spec) {
+        Recipe composite = Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(COMPOSITE);
+        spec.recipe(FusedRecipe.of(composite))
+                .validateRecipeSerialization(false);
+    }
+
+    /**
+     * This test method is used to make sure that the fused recipes give the same result as the composite
+     */
+    @Test
+    void testFusedRecipesMatchComposite() {
+        @Language("java") String before = "import com.azure.core.http.policy.RetryOptions;import java.time.Duration;import com.azure.core.http.policy.FixedDelayOptions;";
+        before += "\npublic class Testing {";
+        before += "\n  FixedDelayOptions f = new FixedDelayOptions(3, Duration.ofMillis(50));";
+        before += "\n  public Testing(){";
+        before += "\n    RetryOptions r = new RetryOptions(f);";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpRetryOptions;\n\nimport java.time.Duration;\n";
+        after += "\npublic class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    HttpRetryOptions r = new HttpRetryOptions(3, Duration.ofMillis(50));";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /**
+     * This test method is used to make sure that the fused recipes change a source file using TypeReference,
+     * HttpLogOptions, Context, Response and a toObject call exactly like the composite does, with the toObject
+     * call wrapped in a try-catch before its TypeReference is converted
+     */
+    @Test
+    void testFusedRecipesMatchCompositeOnCombinedSource() {
+        @Language("java") String source = "import com.azure.ai.translation.text.TextTranslationClient;\n" +
+                "import com.azure.ai.translation.text.TextTranslationClientBuilder;\n" +
+                "import com.azure.ai.translation.text.models.InputTextItem;\n" +
+                "import com.azure.ai.translation.text.models.TranslatedTextItem;\n" +
+                "import com.azure.core.http.policy.HttpLogDetailLevel;\n" +
+                "import com.azure.core.http.policy.HttpLogOptions;\n" +
+                "import com.azure.core.http.rest.RequestOptions;\n" +
+                "import com.azure.core.http.rest.Response;\n" +
+                "import com.azure.core.util.BinaryData;\n" +
+                "import com.azure.core.util.Context;\n" +
+                "import com.azure.core.util.serializer.TypeReference;\n" +
+                "\n" +
+                "import java.util.Arrays;\n" +
+                "import java.util.List;\n" +
+                "\n" +
+                "public class UserClass {\n" +
+                "    private final HttpLogOptions logOptions = new HttpLogOptions().setLogLevel(HttpLogDetailLevel.BODY_AND_HEADERS);\n" +
+                "\n" +
+                "    void myMethod() {\n" +
+                "        TextTranslationClient textTranslationClient = new TextTranslationClientBuilder().buildClient();\n" +
+                "\n" +
+                "        List<InputTextItem> inputTextItems = Arrays.asList(new InputTextItem(\"hello world\"));\n" +
+                "        List<String> targetLanguages = Arrays.asList(\"es\");\n" +
+                "        BinaryData requestBody = BinaryData.fromObject(inputTextItems);\n" +
+                "        RequestOptions requestOptions = new RequestOptions().setContext(Context.NONE);\n" +
+                "\n" +
+                "        Response<BinaryData> binaryDataResponse = textTranslationClient.translateWithResponse(targetLanguages, requestBody, requestOptions);\n" +
+                "        List<TranslatedTextItem> result = binaryDataResponse.getValue().toObject(new TypeReference<List<TranslatedTextItem>>() { });\n" +
+                "    }\n" +
+                "}";
+        Recipe composite = Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(COMPOSITE);
+
+        FusedRecipe fusedRecipe = FusedRecipe.of(composite);
+        List<String> names = new ArrayList<>();
+        for (Recipe recipe : fusedRecipe.getRecipes()) {
+            names.add(recipe.getName());
+        }
+        assertThat(names.indexOf("com.azure.recipes.core.v2.AddTryCatchToMethodCallRecipe"))
+                .isNotNegative()
+                .isLessThan(names.indexOf("com.azure.recipes.core.v2.TypeReferenceRecipe"));
+
+        String unfused = run(composite, source);
+        String fused = run(fusedRecipe, source);
+
+        assertThat(fused).isEqualTo(unfused);
+        assertThat(fused)
+                .contains("import io.clientcore.core.http.models.HttpLogOptions;")
+                .contains("HttpLogOptions.HttpLogDetailLevel.BODY_AND_HEADERS")
+                .contains("import io.clientcore.core.http.models.Response;")
+                .contains("Context.none()")
+                .doesNotContain("TypeReference")
+                .contains("List<TranslatedTextItem> result = null;\n" +
+                        "        try {\n" +
+                        "            result = binaryDataResponse.getValue().toObject(new ParameterizedType() {");
+    }
+
+    /**
+     * This test method is used to make sure that the fused recipes change every source file of the sample
+     * modules exactly like the composite does
+     */
+    @Test
+    void testFusedRecipesMatchCompositeOnSamples() throws IOException {
+        Path sampleDir = Paths.get("../rewrite-sample").toAbsolutePath().normalize();
+        List<Path> sources;
+        try (Stream<Path> files = Files.walk(sampleDir)) {
+            // The module declarations of the samples are left out, as they are not parsed with their module
+            sources = files.filter(file -> file.toString().endsWith(".java"))
+                    .filter(file -> !file.endsWith("module-info.java"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        Recipe composite = Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes(COMPOSITE);
+
+        Map<Path, String> unfused = runAll(composite, sampleDir, sources);
+        Map<Path, String> fused = runAll(FusedRecipe.of(composite), sampleDir, sources);
+
+        assertThat(unfused).isNotEmpty();
+        assertThat(fused).isEqualTo(unfused);
+    }
+
+    /**
+     * Method to run a recipe over source files and print the changed ones by their path
+     */
+    private static Map<Path, String> runAll(Recipe recipe, Path baseDir, List<Path> sources) {
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        List<SourceFile> sourceFiles = JavaParser.fromJavaVersion()
+                .classpath(JavaParser.runtimeClasspath())
+                .logCompilationWarningsAndErrors(false)
+                .build()
+                .parse(sources, baseDir, ctx)
+                .collect(Collectors.toList());
+        Map<Path, String> changed = new TreeMap<>();
+        for (Result result : recipe.run(new InMemoryLargeSourceSet(sourceFiles), ctx).getChangeset().getAllResults()) {
+            if (result.getAfter() != null) {
+                changed.put(result.getAfter().getSourcePath(), result.getAfter().printAll());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Method to run a recipe over a single source file and print the result
+     */
+    private static String run(Recipe recipe, String source) {
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        List<SourceFile> sourceFiles = JavaParser.fromJavaVersion()
+                .classpath(JavaParser.runtimeClasspath())
+                .logCompilationWarningsAndErrors(false)
+                .build()
+                .parse(ctx, source)
+                .collect(Collectors.toList());
+        return recipe.run(new InMemoryLargeSourceSet(sourceFiles), ctx)
+                .getChangeset()
+                .getAllResults()
+                .get(0)
+                .getAfter()
+                .printAll();
+    }
+
+    /**
+     * This test method is used to make sure that a recipe waits for the recipes it is ordered after,
+     * while the other recipes keep their order
+     */
+    @Test
+    void testOrderingConstraintsHonored() {
+        List<Recipe> recipes = Arrays.asList(
+                new TypeReferenceRecipe(),
+                new ResponseRecipe(),
+                new AddTryCatchToMethodCallRecipe("com.azure.core.util.BinaryData toObject(..)",
+                        "catch (IOException e) { e.printStackTrace(); }", "java.io.IOException", true),
+                new ContextRecipe());
+
+        List<String> names = new ArrayList<>();
+        for (Recipe recipe : FusedRecipe.schedule(recipes, FusedRecipe.DEFAULT_ORDERINGS)) {
+            names.add(recipe.getName());
+        }
+        assertThat(names).containsExactly(
+                "com.azure.recipes.core.v2.ResponseRecipe",
+                "com.azure.recipes.core.v2.AddTryCatchToMethodCallRecipe",
+                "com.azure.recipes.core.v2.TypeReferenceRecipe",
+                "com.azure.recipes.core.v2.ContextRecipe");
+    }
+
+    /**
+     * This test method is used to make sure that ordering constraints that cannot all be honored are rejected
+     */
+    @Test
+    void testOrderingConstraintCycleRejected() {
+        List<FusedRecipe.Ordering> orderings = new ArrayList<>(FusedRecipe.DEFAULT_ORDERINGS);
+        orderings.add(new FusedRecipe.Ordering("com.azure.recipes.core.v2.TypeReferenceRecipe",
+                "com.azure.recipes.core.v2.AddTryCatchToMethodCallRecipe"));
+        List<Recipe> recipes = Arrays.asList(
+                new AddTryCatchToMethodCallRecipe("com.azure.core.util.BinaryData toObject(..)",
+                        "catch (IOException e) { e.printStackTrace(); }", "java.io.IOException", true),
+                new TypeReferenceRecipe());
+
+        assertThatThrownBy(() -> new FusedRecipe(recipes, orderings))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -52,7 +52,7 @@ public class HttpHeaderNameTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import io.clientcore.core.http.models.HttpHeaderName;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public Testing(){";
         after += "\n    HttpHeaderName h = new HttpHeaderName();";
         after += "\n  }";
@@ -63,4 +63,215 @@ public class HttpLogOptionsTest implements RewriteTest {
         );
     }
 
+    /* Test to make sure unqualified HttpLogDetailLevel types are qualified and look-alike identifiers are untouched*/
+    @Test
+    public void testHttpLogDetailLevelVariableQualified() {
+        @Language("java") String before = "import com.azure.core.http.policy.HttpLogOptions;";
+        before += "\nimport com.azure.core.http.policy.HttpLogDetailLevel;";
+        before += "\npublic class Testing {";
+        before += "\n  public Testing(){";
+        before += "\n    HttpLogDetailLevel level = HttpLogDetailLevel.HEADERS;";
+        before += "\n    String myHttpLogDetailLevel = \"HttpLogDetailLevel\";";
+        before += "\n    HttpLogOptions h = new HttpLogOptions();h.setLogLevel(level);";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpLogOptions;";
+        after += "\npublic class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    HttpLogOptions.HttpLogDetailLevel level = HttpLogOptions.HttpLogDetailLevel.HEADERS;";
+        after += "\n    String myHttpLogDetailLevel = \"HttpLogDetailLevel\";";
+        after += "\n    HttpLogOptions h = new HttpLogOptions();h.setLogLevel(level);";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /* Test to make sure HttpLogDetailLevel is qualified as the select of valueOf and values*/
+    @Test
+    public void testHttpLogDetailLevelStaticMethodSelectQualified() {
+        @Language("java") String before = "import com.azure.core.http.policy.HttpLogOptions;";
+        before += "\nimport com.azure.core.http.policy.HttpLogDetailLevel;";
+        before += "\npublic class Testing {";
+        before += "\n  public Testing(){";
+        before += "\n    HttpLogOptions options = new HttpLogOptions();";
+        before += "\n    Object level = HttpLogDetailLevel.valueOf(\"HEADERS\");";
+        before += "\n    Object[] levels = HttpLogDetailLevel.values();";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpLogOptions;";
+        after += "\npublic class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    HttpLogOptions options = new HttpLogOptions();";
+        after += "\n    Object level = HttpLogOptions.HttpLogDetailLevel.valueOf(\"HEADERS\");";
+        after += "\n    Object[] levels = HttpLogOptions.HttpLogDetailLevel.values();";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /* Test to make sure HttpLogDetailLevel is qualified as a generic type argument*/
+    @Test
+    public void testHttpLogDetailLevelTypeArgumentQualified() {
+        @Language("java") String before = "import com.azure.core.http.policy.HttpLogOptions;";
+        before += "\nimport com.azure.core.http.policy.HttpLogDetailLevel;";
+        before += "\nimport java.util.List;";
+        before += "\npublic class Testing {";
+        before += "\n  public Testing(){";
+        before += "\n    HttpLogOptions options = new HttpLogOptions();";
+        before += "\n    List<HttpLogDetailLevel> levels = null;";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpLogOptions;";
+        after += "\n\nimport java.util.List;";
+        after += "\n\npublic class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    HttpLogOptions options = new HttpLogOptions();";
+        after += "\n    List<HttpLogOptions.HttpLogDetailLevel> levels = null;";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /* Test to make sure HttpLogDetailLevel is qualified in a cast*/
+    @Test
+    public void testHttpLogDetailLevelCastQualified() {
+        @Language("java") String before = "import com.azure.core.http.policy.HttpLogOptions;";
+        before += "\nimport com.azure.core.http.policy.HttpLogDetailLevel;";
+        before += "\npublic class Testing {";
+        before += "\n  public Testing(){";
+        before += "\n    HttpLogOptions options = new HttpLogOptions();";
+        before += "\n    Object level = null;";
+        before += "\n    options.setLogLevel((HttpLogDetailLevel) level);";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpLogOptions;";
+        after += "\npublic class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    HttpLogOptions options = new HttpLogOptions();";
+        after += "\n    Object level = null;";
+        after += "\n    options.setLogLevel((HttpLogOptions.HttpLogDetailLevel) level);";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /* Test to make sure HttpLogDetailLevel is qualified in an instanceof*/
+    @Test
+    public void testHttpLogDetailLevelInstanceOfQualified() {
+        @Language("java") String before = "import com.azure.core.http.policy.HttpLogOptions;";
+        before += "\nimport com.azure.core.http.policy.HttpLogDetailLevel;";
+        before += "\npublic class Testing {";
+        before += "\n  public Testing(){";
+        before += "\n    HttpLogOptions options = new HttpLogOptions();";
+        before += "\n    Object level = null;";
+        before += "\n    boolean isLevel = level instanceof HttpLogDetailLevel;";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpLogOptions;";
+        after += "\npublic class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    HttpLogOptions options = new HttpLogOptions();";
+        after += "\n    Object level = null;";
+        after += "\n    boolean isLevel = level instanceof HttpLogOptions.HttpLogDetailLevel;";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /* Test to make sure HttpLogDetailLevel is qualified as the type of a method parameter*/
+    @Test
+    public void testHttpLogDetailLevelMethodParameterQualified() {
+        @Language("java") String before = "import com.azure.core.http.policy.HttpLogOptions;";
+        before += "\nimport com.azure.core.http.policy.HttpLogDetailLevel;";
+        before += "\npublic class Testing {";
+        before += "\n  HttpLogOptions options = new HttpLogOptions();";
+        before += "\n  public void setLevel(HttpLogDetailLevel level) {";
+        before += "\n    options.setLogLevel(level);";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpLogOptions;";
+        after += "\npublic class Testing {";
+        after += "\n  HttpLogOptions options = new HttpLogOptions();";
+        after += "\n  public void setLevel(HttpLogOptions.HttpLogDetailLevel level) {";
+        after += "\n    options.setLogLevel(level);";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /* Test to make sure HttpLogDetailLevel is qualified as the type of a lambda parameter*/
+    @Test
+    public void testHttpLogDetailLevelLambdaParameterQualified() {
+        @Language("java") String before = "import com.azure.core.http.policy.HttpLogOptions;";
+        before += "\nimport com.azure.core.http.policy.HttpLogDetailLevel;";
+        before += "\nimport java.util.function.Consumer;";
+        before += "\npublic class Testing {";
+        before += "\n  public Testing(){";
+        before += "\n    HttpLogOptions options = new HttpLogOptions();";
+        before += "\n    Consumer<HttpLogDetailLevel> consumer = (HttpLogDetailLevel level) -> options.setLogLevel(level);";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpLogOptions;";
+        after += "\n\nimport java.util.function.Consumer;";
+        after += "\n\npublic class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    HttpLogOptions options = new HttpLogOptions();";
+        after += "\n    Consumer<HttpLogOptions.HttpLogDetailLevel> consumer = (HttpLogOptions.HttpLogDetailLevel level) -> options.setLogLevel(level);";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /* Test to make sure HttpLogDetailLevel is qualified as the type of a for-each variable*/
+    @Test
+    public void testHttpLogDetailLevelForEachVariableQualified() {
+        @Language("java") String before = "import com.azure.core.http.policy.HttpLogOptions;";
+        before += "\nimport com.azure.core.http.policy.HttpLogDetailLevel;";
+        before += "\nimport java.util.List;";
+        before += "\npublic class Testing {";
+        before += "\n  public Testing(){";
+        before += "\n    HttpLogOptions options = new HttpLogOptions();";
+        before += "\n    List<HttpLogDetailLevel> levels = null;";
+        before += "\n    for (HttpLogDetailLevel level : levels) {";
+        before += "\n      options.setLogLevel(level);";
+        before += "\n    }";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.models.HttpLogOptions;";
+        after += "\n\nimport java.util.List;";
+        after += "\n\npublic class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    HttpLogOptions options = new HttpLogOptions();";
+        after += "\n    List<HttpLogOptions.HttpLogDetailLevel> levels = null;";
+        after += "\n    for (HttpLogOptions.HttpLogDetailLevel level : levels) {";
+        after += "\n      options.setLogLevel(level);";
+        after += "\n    }";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
 }
@@ -0,0 +1,105 @@
+package com.azure.recipes.core.v2;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * RecipeMetricsTest is used to test out the data table the recipes write their metrics to, and the
+ * Java Flight Recorder events they emit
+ */
+public class RecipeMetricsTest implements RewriteTest {
+
+    /**
+     * This method sets which recipe should be used for testing
+     * @param spec stores settings for testing environment; e.g. which recipes to use for testing
+     */
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new ContextRecipe());
+    }
+
+    /**
+     * This test method is used to make sure that a row is written for the changed source file only,
+     * with the nodes counted by visitor method
+     */
+    @Test
+    void testRowWrittenForVisitedSourceFile() {
+        @Language("java") String before = "import com.azure.core.util.Context;";
+        before += "\npublic class Testing {";
+        before += "\n  public Testing(){}";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.util.Context;";
+        after += "\npublic class Testing {";
+        after += "\n  public Testing(){}";
+        after += "\n}";
+
+        @Language("java") String other = "public class Other {}";
+        rewriteRun(
+                spec -> spec.dataTable(RecipeMetrics.Row.class, rows -> {
+                    assertThat(rows).hasSize(1);
+                    RecipeMetrics.Row row = rows.get(0);
+                    assertThat(row.getRecipe()).isEqualTo("com.azure.recipes.core.v2.ContextRecipe");
+                    assertThat(row.getSourcePath()).isEqualTo("Testing.java");
+                    assertThat(row.isChanged()).isTrue();
+                    assertThat(row.getVisitedNodes()).isPositive();
+                    assertThat(row.getVisitCounts()).contains("visitCompilationUnit=1", "visitFieldAccess=");
+                    assertThat(row.getTemplatesApplied()).isZero();
+                }),
+                java(before, after),
+                java(other)
+        );
+    }
+
+    /**
+     * This test method is used to make sure that a RecipeVisitEvent is recorded for the visited source file
+     */
+    @Test
+    void testRecipeVisitEventRecorded() throws Exception {
+        @Language("java") String before = "import com.azure.core.util.Context;";
+        before += "\npublic class Testing {}";
+
+        @Language("java") String after = "import io.clientcore.core.util.Context;";
+        after += "\npublic class Testing {}";
+
+        Path dump = Files.createTempFile("recipe-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.azure.recipes.core.v2.RecipeVisit");
+            recording.start();
+            rewriteRun(
+                    java(before, after)
+            );
+            recording.stop();
+            recording.dump(dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getString("recipe")).isEqualTo("com.azure.recipes.core.v2.ContextRecipe");
+                assertThat(event.getString("sourcePath")).isEqualTo("Testing.java");
+            });
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    /**
+     * This test method is used to make sure that visitor methods are named after the node types they visit
+     */
+    @Test
+    void testVisitMethodNames() {
+        assertThat(RecipeMetrics.Recorder.visitMethod(J.FieldAccess.class)).isEqualTo("visitFieldAccess");
+        assertThat(RecipeMetrics.Recorder.visitMethod(J.VariableDeclarations.NamedVariable.class)).isEqualTo("visitVariable");
+    }
+}
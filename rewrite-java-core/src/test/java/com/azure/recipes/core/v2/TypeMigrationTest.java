@@ -0,0 +1,238 @@
+package com.azure.recipes.core.v2;
+
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * TypeMigrationTest is used to test out the recipe that applies the whole azure-core to
+ * clientcore/azure-core-v2 type mapping table in a single recipe.
+ */
+public class TypeMigrationTest implements RewriteTest {
+
+    /**
+     * This method sets which recipe should be used for testing
+     * @param spec stores settings for testing environment; e.g. which recipes to use for testing
+     */
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new TypeMigrationRecipe());
+    }
+
+    /**
+     * This test method is used to make sure that every mapped type used in a file is changed in one run
+     */
+    @Test
+    void testMultipleMappedTypesChanged() {
+        @Language("java") String before = "public class Testing {";
+        before += "\n  public Testing(){";
+        before += "\n    com.azure.core.util.CoreUtils cu = null;";
+        before += "\n    com.azure.core.util.logging.ClientLogger logger = null;";
+        before += "\n    com.azure.core.util.Configuration configuration = null;";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "public class Testing {";
+        after += "\n  public Testing(){";
+        after += "\n    com.azure.core.v2.util.CoreUtils cu = null;";
+        after += "\n    io.clientcore.core.util.ClientLogger logger = null;";
+        after += "\n    io.clientcore.core.util.configuration.Configuration configuration = null;";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /**
+     * This test method is used to make sure that files without any mapped type are left untouched
+     */
+    @Test
+    void testUnmappedTypesUnchanged() {
+        @Language("java") String before = "import java.util.List;";
+        before += "\npublic class Testing {";
+        before += "\n  List<String> values = null;";
+        before += "\n}";
+        rewriteRun(
+                java(before)
+        );
+    }
+
+    /**
+     * This test method is used to make sure that the types of a mapped package are changed in imports and
+     * fully qualified references
+     */
+    @Test
+    void testPackageMappingChanged() {
+        @Language("java") String before = "import com.azure.core.credential.AzureKeyCredential;";
+        before += "\npublic class Testing {";
+        before += "\n  AzureKeyCredential credential = new AzureKeyCredential(\"<api-key>\");";
+        before += "\n  com.azure.core.credential.TokenCredential tokenCredential = null;";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.credential.AzureKeyCredential;";
+        after += "\npublic class Testing {";
+        after += "\n  AzureKeyCredential credential = new AzureKeyCredential(\"<api-key>\");";
+        after += "\n  io.clientcore.core.credential.TokenCredential tokenCredential = null;";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /**
+     * This test method is used to make sure that imports of mapped types, of their static members and of
+     * mapped packages are changed in place, leaving other imports as they are
+     */
+    @Test
+    void testImportsChanged() {
+        @Language("java") String before = "import com.azure.core.credential.*;";
+        before += "\nimport com.azure.core.util.logging.ClientLogger;";
+        before += "\nimport java.util.List;";
+        before += "\nimport static com.azure.core.util.CoreUtils.isNullOrEmpty;";
+        before += "\npublic class Testing {";
+        before += "\n  ClientLogger logger = new ClientLogger(Testing.class);";
+        before += "\n  KeyCredential credential = null;";
+        before += "\n  boolean empty = isNullOrEmpty((List<String>) null);";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.credential.*;";
+        after += "\nimport io.clientcore.core.util.ClientLogger;";
+        after += "\nimport java.util.List;";
+        after += "\nimport static com.azure.core.v2.util.CoreUtils.isNullOrEmpty;";
+        after += "\npublic class Testing {";
+        after += "\n  ClientLogger logger = new ClientLogger(Testing.class);";
+        after += "\n  KeyCredential credential = null;";
+        after += "\n  boolean empty = isNullOrEmpty((List<String>) null);";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /**
+     * This test method is used to make sure that HttpClient, HttpPipeline and HttpPipelinePolicy are changed
+     * in imports, type positions and fully qualified references
+     */
+    @Test
+    void testHttpClientAndHttpPipelineChanged() {
+        @Language("java") String before = "import com.azure.core.http.HttpClient;";
+        before += "\nimport com.azure.core.http.HttpPipeline;";
+        before += "\nimport java.util.List;";
+        before += "\npublic class Testing {";
+        before += "\n  private HttpClient httpClient;";
+        before += "\n  private HttpPipeline pipeline;";
+        before += "\n  private List<com.azure.core.http.policy.HttpPipelinePolicy> policies;";
+        before += "\n  public HttpPipeline pipeline(HttpClient client) {";
+        before += "\n    return pipeline;";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.http.client.HttpClient;";
+        after += "\nimport io.clientcore.core.http.pipeline.HttpPipeline;";
+        after += "\nimport java.util.List;";
+        after += "\npublic class Testing {";
+        after += "\n  private HttpClient httpClient;";
+        after += "\n  private HttpPipeline pipeline;";
+        after += "\n  private List<io.clientcore.core.http.pipeline.HttpPipelinePolicy> policies;";
+        after += "\n  public HttpPipeline pipeline(HttpClient client) {";
+        after += "\n    return pipeline;";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after)
+        );
+    }
+
+    /**
+     * This test method is used to make sure that the attributed types of variables, methods and calls are changed
+     * along with the type names, so that later recipes see no azure-core type
+     */
+    @Test
+    void testAttributedTypesChanged() {
+        @Language("java") String before = "import com.azure.core.credential.KeyCredential;";
+        before += "\nimport com.azure.core.http.HttpPipeline;";
+        before += "\nimport com.azure.core.util.logging.ClientLogger;";
+        before += "\npublic class Testing {";
+        before += "\n  private final ClientLogger logger = new ClientLogger(Testing.class);";
+        before += "\n  public String key(KeyCredential credential, HttpPipeline pipeline) {";
+        before += "\n    logger.info(pipeline.toString());";
+        before += "\n    return credential.getKey();";
+        before += "\n  }";
+        before += "\n}";
+
+        @Language("java") String after = "import io.clientcore.core.credential.KeyCredential;";
+        after += "\nimport io.clientcore.core.http.pipeline.HttpPipeline;";
+        after += "\nimport io.clientcore.core.util.ClientLogger;";
+        after += "\npublic class Testing {";
+        after += "\n  private final ClientLogger logger = new ClientLogger(Testing.class);";
+        after += "\n  public String key(KeyCredential credential, HttpPipeline pipeline) {";
+        after += "\n    logger.info(pipeline.toString());";
+        after += "\n    return credential.getKey();";
+        after += "\n  }";
+        after += "\n}";
+        rewriteRun(
+                java(before, after, spec -> spec.afterRecipe(cu -> {
+                    Set<String> names = new TreeSet<>();
+                    new JavaIsoVisitor<Set<String>>() {
+                        @Override
+                        public J.VariableDeclarations.NamedVariable visitVariable(J.VariableDeclarations.NamedVariable variable, Set<String> names) {
+                            JavaType.Variable variableType = variable.getVariableType();
+                            if (variableType != null) {
+                                addName(variableType.getType(), names);
+                            }
+                            return super.visitVariable(variable, names);
+                        }
+
+                        @Override
+                        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Set<String> names) {
+                            addNames(method.getMethodType(), names);
+                            return super.visitMethodInvocation(method, names);
+                        }
+
+                        @Override
+                        public J.NewClass visitNewClass(J.NewClass newClass, Set<String> names) {
+                            addNames(newClass.getMethodType(), names);
+                            return super.visitNewClass(newClass, names);
+                        }
+
+                        @Override
+                        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Set<String> names) {
+                            addNames(method.getMethodType(), names);
+                            return super.visitMethodDeclaration(method, names);
+                        }
+
+                        private void addNames(JavaType.Method method, Set<String> names) {
+                            if (method != null) {
+                                addName(method.getDeclaringType(), names);
+                                addName(method.getReturnType(), names);
+                                method.getParameterTypes().forEach(type -> addName(type, names));
+                            }
+                        }
+
+                        private void addName(JavaType type, Set<String> names) {
+                            JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(type);
+                            if (fullyQualified != null) {
+                                names.add(fullyQualified.getFullyQualifiedName());
+                            }
+                        }
+                    }.visit(cu, names);
+                    assertTrue(names.contains("io.clientcore.core.credential.KeyCredential"), names::toString);
+                    assertTrue(names.contains("io.clientcore.core.http.pipeline.HttpPipeline"), names::toString);
+                    assertTrue(names.contains("io.clientcore.core.util.ClientLogger"), names::toString);
+                    assertTrue(names.stream().noneMatch(name -> name.startsWith("com.azure.core.")), names::toString);
+                }))
+        );
+    }
+}
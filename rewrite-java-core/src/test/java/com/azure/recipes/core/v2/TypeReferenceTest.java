@@ -6,6 +6,7 @@ import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 import org.openrewrite.test.TypeValidation;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.java.Assertions.java;
 
 /**
@@ -146,4 +147,175 @@ public class TypeReferenceTest implements RewriteTest {
                 java(before,after)
         );
     }
-}
\ No newline at end of file
+    /**
+     * This test method is used to make sure that TypeReference is correctly
+     * changed to ParameterizedType when the generic type has nested generic type arguments
+     */
+    @Test
+    void testTypeReferenceVariableDeclarationChangeNestedGeneric() {
+        @Language("java") String before = "";
+        before += "\nimport java.lang.reflect.ParameterizedType;";
+        before += "\nimport java.lang.reflect.Type;";
+        before += "\nimport java.util.List;";
+        before += "\nimport java.util.Map;";
+        before += "\nimport com.azure.core.util.serializer.TypeReference;";
+        before += "\npublic class Testing {";
+        before += "\n  private static final TypeReference<Map<String, List<Map<String, Integer>>>> TESTING_TYPE = new TypeReference<Map<String, List<Map<String, Integer>>>>() {\n  };";
+        before += "\n}";
+
+        rewriteRun(
+                java(before, spec -> spec.after(after -> {
+                    assertThat(after).doesNotContain("TypeReference");
+                    assertThat(after).contains("private static final Type TESTING_TYPE = new ParameterizedType()");
+                    assertThat(after).contains("return Map.class;");
+                    assertThat(after).contains("return List.class;");
+                    assertThat(after).containsPattern("String\\.class,\\s*new ParameterizedType\\(\\)");
+                    assertThat(after).containsPattern("\\{\\s*String\\.class,\\s*Integer\\.class\\s*}");
+                    return after;
+                }))
+        );
+    }
+    /**
+     * This test method is used to make sure that TypeReference instances created at call sites are
+     * replaced by a single constant per generic type when hoistToConstants is enabled
+     */
+    @Test
+    void testTypeReferenceHoistedToConstant() {
+        @Language("java") String before = "import com.azure.core.util.serializer.TypeReference;";
+        before += "\nimport java.util.List;";
+        before += "\npublic class Testing {";
+        before += "\n  private Object read(Object type) {";
+        before += "\n    return null;";
+        before += "\n  }";
+        before += "\n  public Object first() {";
+        before += "\n    return read(new TypeReference<List<String>>() { });";
+        before += "\n  }";
+        before += "\n  public Object second() {";
+        before += "\n    return read(new TypeReference<List<String>>() { });";
+        before += "\n  }";
+        before += "\n}";
+
+
+        @Language("java") String after = "import java.lang.reflect.ParameterizedType;\n" +
+                "import java.util.List;\n" +
+                "import java.lang.reflect.Type;\n" +
+                "public class Testing {\n" +
+                "  private static final Type TYPE_REFERENCE_LIST_STRING = new ParameterizedType() {\n" +
+                "      @Override\n" +
+                "      public Type getRawType() {\n" +
+                "          return List.class;\n" +
+                "      }\n\n" +
+                "      @Override\n" +
+                "      public Type[] getActualTypeArguments() {\n" +
+                "          return new Type[]{String.class};\n" +
+                "      }\n\n" +
+                "      @Override\n" +
+                "      public Type getOwnerType() {\n" +
+                "          return null;\n" +
+                "      }\n" +
+                "  };\n" +
+                "  private Object read(Object type) {\n" +
+                "    return null;\n" +
+                "  }\n" +
+                "  public Object first() {\n" +
+                "    return read(TYPE_REFERENCE_LIST_STRING);\n" +
+                "  }\n" +
+                "  public Object second() {\n" +
+                "    return read(TYPE_REFERENCE_LIST_STRING);\n" +
+                "  }\n" +
+                "}";
+
+        rewriteRun(
+                spec -> spec.recipe(new TypeReferenceRecipe(true)),
+                java(before,after)
+        );
+    }
+    /**
+     * This test method is used to make sure that the constants hoisted into an enum are declared after its enum constants,
+     * and that the arguments of the enum constants, which are initialized first, are not hoisted
+     */
+    @Test
+    void testTypeReferenceHoistedToConstantOfEnum() {
+        @Language("java") String before = "import com.azure.core.util.serializer.TypeReference;";
+        before += "\nimport java.util.List;";
+        before += "\npublic enum Testing {";
+        before += "\n  FIRST(new TypeReference<List<String>>() { }),";
+        before += "\n  SECOND(null);";
+        before += "\n  Testing(Object type) {";
+        before += "\n  }";
+        before += "\n  public Object read() {";
+        before += "\n    return new TypeReference<List<String>>() { };";
+        before += "\n  }";
+        before += "\n}";
+
+
+        @Language("java") String after = "import java.lang.reflect.ParameterizedType;\n" +
+                "import java.util.List;\n" +
+                "import java.lang.reflect.Type;\n" +
+                "public enum Testing {\n" +
+                "  FIRST(new ParameterizedType() {\n" +
+                "      @Override\n" +
+                "      public Type getRawType() {\n" +
+                "          return List.class;\n" +
+                "      }\n\n" +
+                "      @Override\n" +
+                "      public Type[] getActualTypeArguments() {\n" +
+                "          return new Type[]{String.class};\n" +
+                "      }\n\n" +
+                "      @Override\n" +
+                "      public Type getOwnerType() {\n" +
+                "          return null;\n" +
+                "      } }),\n" +
+                "  SECOND(null);\n" +
+                "  private static final Type TYPE_REFERENCE_LIST_STRING = new ParameterizedType() {\n" +
+                "      @Override\n" +
+                "      public Type getRawType() {\n" +
+                "          return List.class;\n" +
+                "      }\n\n" +
+                "      @Override\n" +
+                "      public Type[] getActualTypeArguments() {\n" +
+                "          return new Type[]{String.class};\n" +
+                "      }\n\n" +
+                "      @Override\n" +
+                "      public Type getOwnerType() {\n" +
+                "          return null;\n" +
+                "      }\n" +
+                "  };\n" +
+                "  Testing(Object type) {\n" +
+                "  }\n" +
+                "  public Object read() {\n" +
+                "    return TYPE_REFERENCE_LIST_STRING;\n" +
+                "  }\n" +
+                "}";
+
+        rewriteRun(
+                spec -> spec.recipe(new TypeReferenceRecipe(true)),
+                java(before,after)
+        );
+    }
+    /**
+     * This test method is used to make sure that a TypeReference class other than the azure core one is not changed
+     */
+    @Test
+    void testOtherTypeReferenceUnchanged() {
+        @Language("java") String typeReference = "package com.example;";
+        typeReference += "\npublic abstract class TypeReference<T> {";
+        typeReference += "\n}";
+
+        @Language("java") String before = "import com.azure.core.util.BinaryData;";
+        before += "\nimport com.example.TypeReference;";
+        before += "\nimport java.util.List;";
+        before += "\npublic class Testing {";
+        before += "\n  private static final TypeReference<List<String>> TESTING_TYPE = new TypeReference<List<String>>() {\n  };";
+        before += "\n}";
+
+        // BinaryData applies the recipe to the file
+        String after = before.replace("com.azure.core.util.BinaryData", "io.clientcore.core.util.binarydata.BinaryData");
+
+        rewriteRun(
+                spec -> spec.recipe(new TypeReferenceRecipe(true)),
+                java(typeReference),
+                java(before, after)
+        );
+    }
+}
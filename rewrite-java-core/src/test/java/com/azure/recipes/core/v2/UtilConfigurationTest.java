@@ -31,7 +31,7 @@ public class UtilConfigurationTest implements RewriteTest {
         before += "\n}";
 
         @Language("java") String after = "import io.clientcore.core.util.configuration.Configuration;";
-        after += "\n\npublic class Testing {";
+        after += "\npublic class Testing {";
         after += "\n  public Testing(){";
         after += "\n    Configuration c = new Configuration();";
         after += "\n  }";
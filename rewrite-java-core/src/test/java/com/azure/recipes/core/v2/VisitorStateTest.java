@@ -0,0 +1,116 @@
+package com.azure.recipes.core.v2;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.config.Environment;
+import org.openrewrite.java.JavaParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * VisitorStateTest is used to test out that the visitors of the migration recipes keep no state between
+ * compilation units, so that a single visitor instance can visit every file of a run.
+ */
+public class VisitorStateTest {
+
+    private static final int FILE_COUNT = 4;
+
+    /**
+     * This test method is used to make sure that a visitor reused over several compilation units changes
+     * every one of them exactly like a new visitor does
+     */
+    @Test
+    void testReusedVisitorsKeepNoStateBetweenFiles() {
+        List<SourceFile> sources = parse();
+        assertThat(sources).hasSize(FILE_COUNT);
+        Recipe composite = Environment.builder()
+                .scanRuntimeClasspath()
+                .build()
+                .activateRecipes("com.azure.rewrite.java.core.MigrateAzureCoreSamplesToAzureCoreV2");
+
+        for (Recipe recipe : leafRecipes(composite, new ArrayList<>())) {
+            TreeVisitor<?, ExecutionContext> reused = recipe.getVisitor();
+            for (SourceFile source : sources) {
+                assertThat(visit(reused, source))
+                        .as("%s on %s", recipe.getName(), source.getSourcePath())
+                        .isEqualTo(visit(recipe.getVisitor(), source));
+            }
+        }
+    }
+
+    /**
+     * Method to visit a source file and print the result
+     */
+    private static String visit(TreeVisitor<?, ExecutionContext> visitor, SourceFile source) {
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        if (!visitor.isAcceptable(source, ctx)) {
+            return source.printAll();
+        }
+        return ((SourceFile) visitor.visitNonNull(source, ctx)).printAll();
+    }
+
+    /**
+     * Method to flatten a composite recipe into the recipes that provide visitors
+     */
+    private static List<Recipe> leafRecipes(Recipe recipe, List<Recipe> leaves) {
+        if (recipe.getRecipeList().isEmpty()) {
+            leaves.add(recipe);
+        }
+        for (Recipe child : recipe.getRecipeList()) {
+            leafRecipes(child, leaves);
+        }
+        return leaves;
+    }
+
+    /**
+     * Method to parse compilation units that differ in their names and imports. Every other file imports
+     * ParameterizedType instead of TypeReference, so a visitor remembering the imports of the previous file
+     * would drop it as a duplicate.
+     */
+    private static List<SourceFile> parse() {
+        String[] sources = new String[FILE_COUNT];
+        for (int i = 0; i < FILE_COUNT; i++) {
+            boolean typeReference = i % 2 == 0;
+            sources[i] = String.join("\n",
+                    "package com.example.file" + i + ";",
+                    "",
+                    "import com.azure.core.http.policy.FixedDelayOptions;",
+                    "import com.azure.core.http.policy.HttpLogDetailLevel;",
+                    "import com.azure.core.http.policy.HttpLogOptions;",
+                    "import com.azure.core.http.policy.RetryOptions;",
+                    "import com.azure.core.http.rest.Response;",
+                    "import com.azure.core.util.BinaryData;",
+                    "import com.azure.core.util.Context;",
+                    typeReference ? "import com.azure.core.util.serializer.TypeReference;" : "import java.lang.reflect.ParameterizedType;",
+                    "import java.time.Duration;",
+                    "import java.util.List;",
+                    "",
+                    "public class File" + i + " {",
+                    "    private Response<String> response" + i + ";",
+                    "    private Context context" + i + " = Context.NONE;",
+                    "    private HttpLogOptions logOptions" + i + " = new HttpLogOptions().setLogLevel(HttpLogDetailLevel.HEADERS);",
+                    "    private RetryOptions retry" + i + " = new RetryOptions(new FixedDelayOptions(" + i + ", Duration.ofMillis(" + i + ")));",
+                    typeReference ? "" : "    private ParameterizedType type" + i + ";",
+                    "    public List<String> read" + i + "(BinaryData data" + i + ") {",
+                    typeReference
+                            ? "        return data" + i + ".toObject(new TypeReference<List<String>>() { });"
+                            : "        return null;",
+                    "    }",
+                    "}");
+        }
+        return JavaParser.fromJavaVersion()
+                .classpath(JavaParser.runtimeClasspath())
+                .logCompilationWarningsAndErrors(false)
+                .build()
+                .parse(new InMemoryExecutionContext(Throwable::printStackTrace), sources)
+                .collect(Collectors.toList());
+    }
+}